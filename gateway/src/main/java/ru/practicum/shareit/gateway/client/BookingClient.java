@@ -11,6 +11,7 @@ import ru.practicum.shareit.gateway.dto.BookingDto;
 import ru.practicum.shareit.gateway.dto.enums.State;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,6 +32,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingDto);
     }
 
+    public ResponseEntity<Object> createBookings(Long userId, List<BookingDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
     public ResponseEntity<Object> bookingConfirmation(Long userId, Long bookingId, Boolean approved) {
         String path = "/" + bookingId + "?approved=" + approved;
         Map<String, Object> parameters = new HashMap<>();
@@ -39,25 +44,44 @@ public class BookingClient extends BaseClient {
         return patch(path, userId, parameters);
     }
 
+    public ResponseEntity<Object> bookingConfirmations(Long userId, List<Long> bookingIds, Boolean approved) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("approved", approved);
+
+        return patch("/batch?approved={approved}", userId, parameters, bookingIds);
+    }
+
     public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUser(Long userId, State state, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllBookingsByUser(Long userId, State state, Integer from, Integer size,
+                                                       String after) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("state", state.name());
         parameters.put("from", from);
         parameters.put("size", size);
 
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        String path = "?state={state}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwner(Long userId, State state, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllBookingsByOwner(Long userId, State state, Integer from, Integer size,
+                                                        String after) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("state", state.name());
         parameters.put("from", from);
         parameters.put("size", size);
 
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        String path = "/owner?state={state}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 }
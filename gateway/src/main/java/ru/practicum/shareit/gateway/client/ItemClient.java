@@ -10,6 +10,8 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.gateway.dto.CommentDto;
 import ru.practicum.shareit.gateway.dto.ItemDto;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,6 +38,18 @@ public class ItemClient extends BaseClient {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
+    public ResponseEntity<Object> getComments(Long userId, Long itemId, String after, Integer limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("limit", limit);
+
+        String path = "/" + itemId + "/comments?limit={limit}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
+    }
+
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -44,21 +58,55 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> viewAllItems(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> viewAllItems(Long userId, Integer from, Integer size, String after) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("from", from);
         parameters.put("size", size);
 
         String path = "?from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
         return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(String text, Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> searchItems(String text, Long userId, Integer from, Integer size, String after,
+                                              LocalDate availableFrom, LocalDate availableTo) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("text", text);
         parameters.put("from", from);
         parameters.put("size", size);
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        if (availableFrom != null) {
+            parameters.put("availableFrom", availableFrom);
+            parameters.put("availableTo", availableTo);
+            path += "&availableFrom={availableFrom}&availableTo={availableTo}";
+        }
+        return get(path, userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItems(String prefix, Long userId, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("prefix", prefix);
+        parameters.put("size", size);
+
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to,
+                                                      Boolean includeWaiting) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("to", to);
+        parameters.put("includeWaiting", includeWaiting);
+
+        return get("/" + itemId + "/availability?from={from}&to={to}&includeWaiting={includeWaiting}", userId,
+                parameters);
     }
 }
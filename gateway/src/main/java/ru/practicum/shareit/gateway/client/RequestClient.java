@@ -35,12 +35,17 @@ public class RequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size, String after) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("from", from);
         parameters.put("size", size);
 
-        return get("/all?from={from}&size={size}", userId, parameters);
+        String path = "/all?from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
     }
 
     public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
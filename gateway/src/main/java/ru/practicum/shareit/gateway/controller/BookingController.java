@@ -10,11 +10,13 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.gateway.client.BookingClient;
 import ru.practicum.shareit.gateway.dto.BookingDto;
 import ru.practicum.shareit.gateway.dto.enums.State;
+import ru.practicum.shareit.gateway.exception.InvalidException;
 import ru.practicum.shareit.gateway.exception.UnsupportedStateException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @Slf4j
 @Validated
@@ -23,6 +25,7 @@ import javax.validation.constraints.PositiveOrZero;
 @RequestMapping(path = "/bookings")
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BookingController {
+    static final int MAX_BATCH_SIZE = 500;
 
     final BookingClient client;
 
@@ -35,6 +38,16 @@ public class BookingController {
         return client.createBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    ResponseEntity<Object> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Пакетное создание " + bookingDtos.size() + " бронирований пользователем с айди " + userId);
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new InvalidException("В пакете должно быть от 1 до " + MAX_BATCH_SIZE + " бронирований");
+        }
+        return client.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     ResponseEntity<Object> bookingConfirmation(@PathVariable Long bookingId, @RequestParam Boolean approved,
                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -42,6 +55,16 @@ public class BookingController {
         return client.bookingConfirmation(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    ResponseEntity<Object> bookingConfirmations(@RequestBody List<Long> bookingIds, @RequestParam Boolean approved,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Пакетное подтверждение " + bookingIds.size() + " бронирований владельцем с айди " + userId);
+        if (bookingIds.isEmpty() || bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidException("В пакете должно быть от 1 до " + MAX_BATCH_SIZE + " бронирований");
+        }
+        return client.bookingConfirmations(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     ResponseEntity<Object> getBookingById(@PathVariable Long bookingId,
                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -53,23 +76,25 @@ public class BookingController {
     ResponseEntity<Object> getAllBookingsByUser(@RequestParam(name = "state", defaultValue = "ALL") String stateString,
                                                 @RequestHeader("X-Sharer-User-Id") Long userId,
                                                 @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                @RequestParam(required = false) String after) {
         log.info("Просмотр бронирований со статусом " + stateString + " пользователем с айди " + userId +
                 " , from={}, size={}", from, size);
         State state = State.from(stateString)
                 .orElseThrow(() -> new UnsupportedStateException("Unknown state: " + stateString));
-        return client.getAllBookingsByUser(userId, state, from, size);
+        return client.getAllBookingsByUser(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     ResponseEntity<Object> getAllBookingsByOwner(@RequestParam(name = "state", defaultValue = "ALL") String stateString,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                 @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                                 @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                 @RequestParam(required = false) String after) {
         log.info("Просмотр бронирований со статусом " + stateString + " владельцем с айди " + userId +
                 " , from={}, size={}", from, size);
         State state = State.from(stateString)
                 .orElseThrow(() -> new UnsupportedStateException("Unknown state: " + stateString));
-        return client.getAllBookingsByOwner(userId, state, from, size);
+        return client.getAllBookingsByOwner(userId, state, from, size, after);
     }
 }
@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,9 +12,12 @@ import ru.practicum.shareit.gateway.client.ItemClient;
 import ru.practicum.shareit.gateway.dto.ItemDto;
 import ru.practicum.shareit.gateway.dto.CommentDto;
 import ru.practicum.shareit.gateway.dto.Validated.*;
+import ru.practicum.shareit.gateway.exception.InvalidException;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Validated
@@ -39,6 +43,16 @@ public class ItemController {
         return client.commentItem(userId, itemId, commentDto);
     }
 
+    @GetMapping("/{itemId}/comments")
+    ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                       @RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(defaultValue = "10") @Positive Integer limit) {
+        log.info("Просмотр коментариев к вещи с айди " + itemId + " пользователем с айди " + userId
+                + " , limit={}", limit);
+        return client.getComments(userId, itemId, after, limit);
+    }
+
     @PatchMapping("/{itemId}")
     ResponseEntity<Object> updateItem(@PathVariable Long itemId, @RequestBody @Validated(Update.class) ItemDto itemDto,
                                       @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -56,17 +70,52 @@ public class ItemController {
     @GetMapping
     ResponseEntity<Object> viewAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                        @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                        @RequestParam(defaultValue = "10") @Positive Integer size,
+                                        @RequestParam(required = false) String after) {
         log.info("Запрошен список всех вещей пользователя с айди " + userId + " , from={}, size={}", from, size);
-        return client.viewAllItems(userId, from, size);
+        return client.viewAllItems(userId, from, size, after);
     }
 
     @GetMapping("/search")
     ResponseEntity<Object> searchItems(@RequestParam String text, @RequestHeader("X-Sharer-User-Id") Long userId,
                                        @RequestParam(defaultValue = "0") Integer from,
-                                       @RequestParam(defaultValue = "10") Integer size) {
+                                       @RequestParam(defaultValue = "10") Integer size,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableFrom,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableTo) {
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new InvalidException("Для поиска свободных вещей нужно указать обе даты периода");
+        }
+        if (availableFrom != null && availableFrom.isAfter(availableTo)) {
+            throw new InvalidException("Начало периода должно быть не позже его окончания");
+        }
         log.info("Поиск вещей содержащих '" + text + "' в названии или описании пользователем с айди " + userId
                 + " , from={}, size={}", from, size);
-        return client.searchItems(text, userId, from, size);
+        return client.searchItems(text, userId, from, size, after, availableFrom, availableTo);
+    }
+
+    @GetMapping("/suggest")
+    ResponseEntity<Object> suggestItems(@RequestParam String prefix, @RequestHeader("X-Sharer-User-Id") Long userId,
+                                        @RequestParam(defaultValue = "10") @Positive Integer size) {
+        log.info("Подсказки для '" + prefix + "' пользователю с айди " + userId + " , size={}", size);
+        return client.suggestItems(prefix, userId, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    ResponseEntity<Object> getItemAvailability(@PathVariable Long itemId,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to,
+                                               @RequestParam(defaultValue = "false") Boolean includeWaiting) {
+        if (!from.isBefore(to)) {
+            throw new InvalidException("Начало периода должно быть раньше его окончания");
+        }
+        log.info("Календарь занятости вещи с айди " + itemId + " с " + from + " по " + to
+                + " для пользователя с айди " + userId);
+        return client.getItemAvailability(userId, itemId, from, to, includeWaiting);
     }
 }
@@ -38,9 +38,10 @@ public class ItemRequestController {
     @GetMapping("/all")
     ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                          @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                          @RequestParam(defaultValue = "10") @Positive Integer size,
+                                          @RequestParam(required = false) String after) {
         log.info("Просмотр всех запросов пользователем с айди " + userId);
-        return client.getAllRequests(userId, from, size);
+        return client.getAllRequests(userId, from, size, after);
 
     }
 
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.server.booking.model.Status;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingConfirmationResultDto {
+    Long bookingId;
+    Integer status;
+    Status bookingStatus;
+    String error;
+}
@@ -5,8 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.FieldDefaults;
 import ru.practicum.shareit.server.booking.model.Status;
-import ru.practicum.shareit.server.item.model.Item;
-import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -17,7 +15,7 @@ public class BookingDtoReturned {
     Long id;
     LocalDateTime start;
     LocalDateTime end;
-    Item item;
-    User booker;
+    ItemShortDto item;
+    UserShortDto booker;
     Status status;
 }
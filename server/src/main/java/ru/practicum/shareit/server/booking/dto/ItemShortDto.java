@@ -0,0 +1,14 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemShortDto {
+    Long id;
+    String name;
+}
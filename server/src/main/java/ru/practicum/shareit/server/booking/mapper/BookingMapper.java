@@ -4,7 +4,11 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
+import ru.practicum.shareit.server.booking.dto.ItemShortDto;
+import ru.practicum.shareit.server.booking.dto.UserShortDto;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingListView;
+import ru.practicum.shareit.server.booking.model.BookingView;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.user.model.User;
 
@@ -32,8 +36,22 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(LocalDateTime.parse(booking.getStart().format(DateTimeFormatter.ofPattern(TIME_PATTERN))))
                 .end(LocalDateTime.parse(booking.getEnd().format(DateTimeFormatter.ofPattern(TIME_PATTERN))))
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(ItemShortDto.builder()
+                        .id(booking.getItem().getId())
+                        .name(booking.getItem().getName())
+                        .build())
+                .booker(UserShortDto.builder().id(booking.getBooker().getId()).build())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static BookingDtoReturned toBookingDtoReturned(BookingListView booking) {
+        return BookingDtoReturned.builder()
+                .id(booking.getId())
+                .start(LocalDateTime.parse(booking.getStart().format(DateTimeFormatter.ofPattern(TIME_PATTERN))))
+                .end(LocalDateTime.parse(booking.getEnd().format(DateTimeFormatter.ofPattern(TIME_PATTERN))))
+                .item(ItemShortDto.builder().id(booking.getItemId()).name(booking.getItemName()).build())
+                .booker(UserShortDto.builder().id(booking.getBookerId()).build())
                 .status(booking.getStatus())
                 .build();
     }
@@ -49,6 +67,17 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto toBookingDto(BookingView booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(LocalDateTime.parse(booking.getStart().format(DateTimeFormatter.ofPattern(TIME_PATTERN))))
+                .end(LocalDateTime.parse(booking.getEnd().format(DateTimeFormatter.ofPattern(TIME_PATTERN))))
+                .itemId(booking.getItemId())
+                .bookerId(booking.getBookerId())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static BookingDtoReceived toBookingDtoReceived(Booking booking) {
         return BookingDtoReceived.builder()
                 .id(booking.getId())
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.server.booking.model;
+
+import java.time.LocalDateTime;
+
+public interface BookingListView {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Status getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getBookerId();
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.server.booking.model;
+
+import java.time.LocalDateTime;
+
+public interface BookingView {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Status getStatus();
+}
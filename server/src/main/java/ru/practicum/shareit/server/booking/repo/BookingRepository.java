@@ -1,23 +1,192 @@
 package ru.practicum.shareit.server.booking.repo;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingListView;
+import ru.practicum.shareit.server.booking.model.BookingView;
 import ru.practicum.shareit.server.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @EntityGraph("Booking.item")
+    Optional<Booking> findById(Long id);
+
+    String BOOKING_LIST_SELECT = "select b.id as id, b.start as start, b.end as end, b.status as status, " +
+            "i.id as itemId, i.name as itemName, b.booker.id as bookerId from Booking b join b.item i ";
+
     List<Booking> findBookingsByStatusAndStartIsAfterOrderByStartAsc(Status status, LocalDateTime ldt);
 
     List<Booking> findBookingsByStatusAndEndIsBeforeOrderByStartDesc(Status status, LocalDateTime ldt);
 
-    List<Booking> findBookingsByItemOwnerIdOrderByIdDesc(Long ownerId, Pageable pageable);
+    @Query(value = "select id as \"id\", start_time as \"start\", end_time as \"end\", item_id as \"itemId\", " +
+            "booker_id as \"bookerId\", status as \"status\" " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_time desc, b.id desc) rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.end_time < :now) last_bookings " +
+            "where rn = 1 " +
+            "union all " +
+            "select id, start_time, end_time, item_id, booker_id, status " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_time asc, b.id asc) rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_time > :now) next_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<BookingView> findLastAndNextBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(BOOKING_LIST_SELECT + "where b.booker.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByBookerIdOrderByStartDescIdDesc(Long bookerId, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3 " +
+            "order by b.end desc, b.id desc")
+    List<BookingListView> findBookingsByBookerIdAndStartIsBeforeAndEndIsAfterOrderByEndDescIdDesc(
+            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where b.booker.id = ?1 and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByBookerIdAndEndIsBeforeOrderByStartDescIdDesc(
+            Long bookerId, LocalDateTime end, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where b.booker.id = ?1 and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByBookerIdAndStartIsAfterOrderByStartDescIdDesc(
+            Long bookerId, LocalDateTime start, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where b.booker.id = ?1 and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByBookerIdAndStatusOrderByStartDescIdDesc(
+            Long bookerId, Status status, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where i.owner.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByItemOwnerIdOrderByStartDescIdDesc(Long ownerId, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where i.owner.id = ?1 and b.start < ?2 and b.end > ?3 " +
+            "order by b.end desc, b.id desc")
+    List<BookingListView> findBookingsByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDescIdDesc(
+            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where i.owner.id = ?1 and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByItemOwnerIdAndEndIsBeforeOrderByStartDescIdDesc(
+            Long ownerId, LocalDateTime end, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where i.owner.id = ?1 and b.start > ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByItemOwnerIdAndStartIsAfterOrderByStartDescIdDesc(
+            Long ownerId, LocalDateTime start, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT + "where i.owner.id = ?1 and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+            Long ownerId, Status status, Pageable pageable);
+
+    @Query("select b.id as id, b.start as start, b.end as end, b.item.id as itemId, b.booker.id as bookerId, " +
+            "b.status as status from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    List<BookingView> findBookingViewsByItemIdAndStatusInAndEndAfter(Long itemId, Collection<Status> statuses,
+                                                                     LocalDateTime end);
+
+    @Query("select b.id as id, b.start as start, b.end as end, b.item.id as itemId, b.booker.id as bookerId, " +
+            "b.status as status from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3 and b.start < ?4 order by b.start")
+    List<BookingView> findBookingViewsInWindow(Long itemId, Collection<Status> statuses, LocalDateTime from,
+                                               LocalDateTime to);
+
+    @Query("select b.id as id, b.start as start, b.end as end, b.item.id as itemId, b.booker.id as bookerId, " +
+            "b.status as status from Booking b " +
+            "where b.item.id in ?1 and b.status = ?2 order by b.item.id, b.start, b.id")
+    List<BookingView> findBookingViewsByItemIdInAndStatus(Collection<Long> itemIds, Status status);
+
+    @Query("select b.id as id, b.start as start, b.end as end, b.item.id as itemId, b.booker.id as bookerId, " +
+            "b.status as status from Booking b " +
+            "where b.id in ?1 and b.item.owner.id = ?2")
+    List<BookingView> findBookingViewsByIdInAndItemOwnerId(Collection<Long> ids, Long ownerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3, b.version = b.version + 1 where b.id in ?1 and b.status = ?2")
+    int updateStatusByIdInAndStatus(Collection<Long> ids, Status current, Status status);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where b.booker.id = :bookerId " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByBookerIdAfter(Long bookerId, LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where b.booker.id = :bookerId and b.start < :now and b.end > :now " +
+            "and (b.end < :key or (b.end = :key and b.id < :id)) " +
+            "order by b.end desc, b.id desc")
+    List<BookingListView> findCurrentBookingsByBookerIdAfter(Long bookerId, LocalDateTime now,
+                                                             LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where b.booker.id = :bookerId and b.end < :now " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findPastBookingsByBookerIdAfter(Long bookerId, LocalDateTime now,
+                                                          LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where b.booker.id = :bookerId and b.start > :now " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findFutureBookingsByBookerIdAfter(Long bookerId, LocalDateTime now,
+                                                            LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where b.booker.id = :bookerId and b.status = :status " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByBookerIdAndStatusAfter(Long bookerId, Status status,
+                                                               LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where i.owner.id = :ownerId " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByItemOwnerIdAfter(Long ownerId, LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where i.owner.id = :ownerId and b.start < :now and b.end > :now " +
+            "and (b.end < :key or (b.end = :key and b.id < :id)) " +
+            "order by b.end desc, b.id desc")
+    List<BookingListView> findCurrentBookingsByItemOwnerIdAfter(Long ownerId, LocalDateTime now,
+                                                                LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where i.owner.id = :ownerId and b.end < :now " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findPastBookingsByItemOwnerIdAfter(Long ownerId, LocalDateTime now,
+                                                             LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where i.owner.id = :ownerId and b.start > :now " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findFutureBookingsByItemOwnerIdAfter(Long ownerId, LocalDateTime now,
+                                                               LocalDateTime key, Long id, Pageable pageable);
+
+    @Query(BOOKING_LIST_SELECT +
+            "where i.owner.id = :ownerId and b.status = :status " +
+            "and (b.start < :key or (b.start = :key and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingListView> findBookingsByItemOwnerIdAndStatusAfter(Long ownerId, Status status,
+                                                                  LocalDateTime key, Long id, Pageable pageable);
 
-    List<Booking> findBookingsByBookerIdOrderByIdDesc(Long bookerId, Pageable pageable);
+    @Query("select distinct b.item.id from Booking b where b.booker.id = ?1")
+    List<Long> findItemIdsByBookerId(Long bookerId);
 
-    List<Booking> findBookingsByBookerIdAndItemId(Long bookerId, Long itemId);
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, Status status,
+                                                           LocalDateTime end);
 
     Booking findFirstByItemIdAndStartIsBeforeAndStatusIsOrderByStartDesc(Long itemId, LocalDateTime ldt, Status status);
 
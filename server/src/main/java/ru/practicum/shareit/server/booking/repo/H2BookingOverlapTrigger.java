@@ -0,0 +1,39 @@
+package ru.practicum.shareit.server.booking.repo;
+
+import org.h2.tools.TriggerAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class H2BookingOverlapTrigger extends TriggerAdapter {
+    public static final String OVERLAP_STATE = "23P01";
+
+    @Override
+    public void fire(Connection connection, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        String status = newRow.getString("status");
+        if (!"WAITING".equals(status) && !"APPROVED".equals(status)) {
+            return;
+        }
+        long itemId = newRow.getLong("item_id");
+        try (PreparedStatement lock = connection.prepareStatement("select id from items where id = ? for update")) {
+            lock.setLong(1, itemId);
+            lock.executeQuery().close();
+        }
+        try (PreparedStatement overlap = connection.prepareStatement("select count(*) from bookings " +
+                "where item_id = ? and id <> ? and status in ('WAITING', 'APPROVED') " +
+                "and start_time < ? and end_time > ?")) {
+            overlap.setLong(1, itemId);
+            overlap.setLong(2, oldRow == null ? -1 : oldRow.getLong("id"));
+            overlap.setTimestamp(3, newRow.getTimestamp("end_time"));
+            overlap.setTimestamp(4, newRow.getTimestamp("start_time"));
+            try (ResultSet count = overlap.executeQuery()) {
+                if (count.next() && count.getLong(1) > 0) {
+                    throw new SQLException("Бронирование вещи " + itemId + " пересекается с существующим",
+                            OVERLAP_STATE);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.server.booking.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingView;
+import ru.practicum.shareit.server.booking.model.Status;
+import ru.practicum.shareit.server.booking.repo.BookingRepository;
+import ru.practicum.shareit.server.transaction.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingIntervalIndex {
+    static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+
+    BookingRepository bookingRepository;
+    Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return intervals(itemId).overlaps(start, end, LocalDateTime.now());
+    }
+
+    public void add(Booking booking) {
+        if (!BLOCKING_STATUSES.contains(booking.getStatus())) {
+            return;
+        }
+        Long itemId = booking.getItem().getId();
+        Interval interval = new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        AfterCommit.run(() -> {
+            ItemIntervals cached = items.get(itemId);
+            if (cached != null) {
+                cached.add(interval);
+            }
+        });
+    }
+
+    public void remove(Booking booking) {
+        remove(booking.getItem().getId(), booking.getId(), booking.getStart());
+    }
+
+    public void remove(BookingView booking) {
+        remove(booking.getItemId(), booking.getId(), booking.getStart());
+    }
+
+    private void remove(Long itemId, Long bookingId, LocalDateTime start) {
+        AfterCommit.run(() -> {
+            ItemIntervals cached = items.get(itemId);
+            if (cached != null) {
+                cached.remove(bookingId, start);
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        items.remove(itemId);
+        AfterCommit.run(() -> items.remove(itemId));
+    }
+
+    public void invalidateAll() {
+        items.clear();
+    }
+
+    private ItemIntervals intervals(Long itemId) {
+        ItemIntervals cached = items.get(itemId);
+        if (cached != null) {
+            return cached;
+        }
+        ItemIntervals loaded = new ItemIntervals();
+        for (BookingView booking : bookingRepository.findBookingViewsByItemIdAndStatusInAndEndAfter(itemId,
+                BLOCKING_STATUSES, LocalDateTime.now())) {
+            loaded.add(new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+        }
+        cached = items.putIfAbsent(itemId, loaded);
+        return cached == null ? loaded : cached;
+    }
+
+    private static class ItemIntervals {
+        final NavigableMap<LocalDateTime, Interval> byStart = new TreeMap<>();
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+            while (!byStart.isEmpty() && !byStart.firstEntry().getValue().end.isAfter(now)) {
+                byStart.pollFirstEntry();
+            }
+            Map.Entry<LocalDateTime, Interval> previous = byStart.lowerEntry(end);
+            return previous != null && previous.getValue().end.isAfter(start);
+        }
+
+        synchronized void add(Interval interval) {
+            byStart.merge(interval.start, interval, (left, right) -> left.end.isAfter(right.end) ? left : right);
+        }
+
+        synchronized void remove(Long bookingId, LocalDateTime start) {
+            Interval interval = byStart.get(start);
+            if (interval != null && interval.bookingId.equals(bookingId)) {
+                byStart.remove(start);
+            }
+        }
+    }
+
+    private static class Interval {
+        final Long bookingId;
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Interval(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package ru.practicum.shareit.server.booking.service;
 
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingConfirmationResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
+import ru.practicum.shareit.server.pagination.CursorPage;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDtoReturned createBooking(BookingDtoReceived bookingDto, Long userId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingDtoReceived> bookingDtos, Long userId);
+
     BookingDtoReturned bookingConfirmation(Long bookingId, Boolean confirmation, Long userId);
 
+    List<BookingConfirmationResultDto> bookingConfirmations(List<Long> bookingIds, Boolean confirmation, Long userId);
+
     BookingDtoReturned getBookingById(Long bookingId, Long userId);
 
     List<BookingDtoReturned> getAllBookingsByUser(String state, Long userId, Integer from, Integer size);
 
     List<BookingDtoReturned> getAllBookingsByOwner(String state, Long ownerId, Integer from, Integer size);
+
+    CursorPage<BookingDtoReturned> getBookingPageByUser(String state, Long userId, Integer from, Integer size,
+                                                        String after);
+
+    CursorPage<BookingDtoReturned> getBookingPageByOwner(String state, Long ownerId, Integer from, Integer size,
+                                                         String after);
 }
@@ -4,28 +4,51 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.booking.repo.BookingRepository;
+import ru.practicum.shareit.server.booking.repo.H2BookingOverlapTrigger;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingConfirmationResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingListView;
+import ru.practicum.shareit.server.booking.model.BookingView;
 import ru.practicum.shareit.server.booking.model.State;
 import ru.practicum.shareit.server.booking.model.Status;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
 import ru.practicum.shareit.server.exception.InvalidException;
 import ru.practicum.shareit.server.exception.UnsupportedStateException;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemAvailabilityIndex;
+import ru.practicum.shareit.server.item.service.ItemBookingTimelines;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
 import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repo.UserRepository;
+import ru.practicum.shareit.server.user.service.KnownUsers;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,28 +59,22 @@ public class BookingServiceImpl implements BookingService {
     final BookingRepository bookingRepository;
     final ItemRepository itemRepository;
     final UserRepository userRepository;
+    final KnownUsers knownUsers;
+    final BookingIntervalIndex intervalIndex;
+    final ItemLocks itemLocks;
+    final ItemAvailabilityIndex availabilityIndex;
+    final ItemBookingTimelines timelines;
 
     @Transactional
     @Override
     public BookingDtoReturned createBooking(BookingDtoReceived bookingDto, Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
+        User user = userRepository.getReferenceById(userId);
         Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(() ->
                 new DataNotFoundException("Вещи с айди " + bookingDto.getItemId() + " не найдена"));
-        if (item.getOwner().getId().equals(userId)) {
-            throw new DataNotFoundException("Владелец вещи не может создать ее бронирование");
-        }
-        if (!item.getAvailable()) {
-            throw new InvalidException("Вещь с айди " + item.getId() + " недоступна для бронирования");
-        }
-        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
-            throw new InvalidException("Не указаны дата и время начала или окончания брони");
-        }
-        if (bookingDto.getStart().isBefore(LocalDateTime.now()) || bookingDto.getEnd().isBefore(LocalDateTime.now())) {
-            throw new InvalidException("Бронь не может начаться или закончиться раньше текущей даты и времени");
-        }
-        if (bookingDto.getEnd().isBefore(bookingDto.getStart()) || bookingDto.getEnd().isEqual(bookingDto.getStart())) {
-            throw new InvalidException("Бронь не может закончиться одновременно или раньше даты и времени начала брони");
+        validateBooking(bookingDto, item, userId);
+        itemLocks.lock(item.getId());
+        if (intervalIndex.overlaps(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ConflictException("Вещь с айди " + item.getId() + " уже забронирована на это время");
         }
 
         Booking booking = BookingMapper.toBooking(bookingDto, user, item);
@@ -65,7 +82,92 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(user);
         booking.setStatus(Status.WAITING);
 
-        return BookingMapper.toBookingDtoReturned(bookingRepository.save(booking));
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlap(e)) {
+                throw bookerNotFound(userId, e);
+            }
+            intervalIndex.invalidate(item.getId());
+            throw new ConflictException("Вещь с айди " + item.getId() + " уже забронирована на это время");
+        }
+        intervalIndex.add(saved);
+        availabilityIndex.book(saved);
+        return BookingMapper.toBookingDtoReturned(saved);
+    }
+
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> createBookings(List<BookingDtoReceived> bookingDtos, Long userId) {
+        User user = userRepository.getReferenceById(userId);
+        Map<Long, Item> items = itemRepository.findAllById(bookingDtos.stream()
+                        .map(BookingDtoReceived::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        itemLocks.lock(items.keySet());
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> acceptedIntervals = new HashMap<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDtoReceived bookingDto = bookingDtos.get(i);
+            try {
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new DataNotFoundException("Вещи с айди " + bookingDto.getItemId() + " не найдена");
+                }
+                validateBooking(bookingDto, item, userId);
+                NavigableMap<LocalDateTime, LocalDateTime> intervals =
+                        acceptedIntervals.computeIfAbsent(item.getId(), id -> new TreeMap<>());
+                Map.Entry<LocalDateTime, LocalDateTime> previous = intervals.lowerEntry(bookingDto.getEnd());
+                if ((previous != null && previous.getValue().isAfter(bookingDto.getStart()))
+                        || intervalIndex.overlaps(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+                    throw new ConflictException("Вещь с айди " + item.getId() + " уже забронирована на это время");
+                }
+                intervals.put(bookingDto.getStart(), bookingDto.getEnd());
+                accepted.put(i, Booking.builder()
+                        .start(bookingDto.getStart())
+                        .end(bookingDto.getEnd())
+                        .item(item)
+                        .booker(user)
+                        .status(Status.WAITING)
+                        .build());
+                results.add(null);
+            } catch (DataNotFoundException e) {
+                results.add(rejected(i, HttpStatus.NOT_FOUND, e.getMessage()));
+            } catch (InvalidException e) {
+                results.add(rejected(i, HttpStatus.BAD_REQUEST, e.getMessage()));
+            } catch (ConflictException e) {
+                results.add(rejected(i, HttpStatus.CONFLICT, e.getMessage()));
+            }
+        }
+
+        try {
+            bookingRepository.saveAll(accepted.values());
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlap(e)) {
+                throw bookerNotFound(userId, e);
+            }
+            items.keySet().forEach(intervalIndex::invalidate);
+            throw new ConflictException("Часть бронирований пересекается с уже существующими, повторите запрос");
+        }
+        accepted.forEach((index, booking) -> {
+            intervalIndex.add(booking);
+            availabilityIndex.book(booking);
+            results.set(index, BookingBatchResultDto.builder()
+                    .index(index)
+                    .status(HttpStatus.CREATED.value())
+                    .booking(BookingMapper.toBookingDtoReturned(booking))
+                    .build());
+        });
+        log.info("Пакетное создание бронирований пользователем с айди " + userId + ": создано " + accepted.size()
+                + " из " + bookingDtos.size());
+        return results;
     }
 
     @Transactional
@@ -73,31 +175,136 @@ public class BookingServiceImpl implements BookingService {
     public BookingDtoReturned bookingConfirmation(Long bookingId, Boolean confirmation, Long userId) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new DataNotFoundException("Бронирование с айди " + bookingId + " не найдено"));
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
-        if (!booking.getItem().getOwner().getId().equals(user.getId())) {
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
             throw new DataNotFoundException("Пользователь с айди " + userId +
                     " не является владельцем вещи и не может изменять статус бронирования");
         }
+        itemLocks.lock(booking.getItem().getId());
         if (booking.getStatus().equals(Status.WAITING) && confirmation) {
             booking.setStatus(Status.APPROVED);
         } else if (booking.getStatus().equals(Status.APPROVED)) {
             throw new InvalidException("Вещь уже доступна для бронирования");
         } else {
             booking.setStatus(Status.REJECTED);
+            intervalIndex.remove(booking);
+            availabilityIndex.release(booking);
+        }
+        Booking saved = bookingRepository.save(booking);
+        if (saved.getStatus() == Status.APPROVED) {
+            timelines.invalidate(saved.getItem().getId());
         }
-        return BookingMapper.toBookingDtoReturned(bookingRepository.save(booking));
+        return BookingMapper.toBookingDtoReturned(saved);
+    }
+
+    @Transactional
+    @Override
+    public List<BookingConfirmationResultDto> bookingConfirmations(List<Long> bookingIds, Boolean confirmation,
+                                                                   Long userId) {
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookingView> owned = bookingRepository.findBookingViewsByIdInAndItemOwnerId(ids, userId).stream()
+                .collect(Collectors.toMap(BookingView::getId, Function.identity()));
+        List<BookingView> waiting = owned.values().stream()
+                .filter(booking -> booking.getStatus() == Status.WAITING)
+                .collect(Collectors.toList());
+        Status status = confirmation ? Status.APPROVED : Status.REJECTED;
+        if (!waiting.isEmpty()) {
+            Set<Long> itemIds = waiting.stream().map(BookingView::getItemId).collect(Collectors.toSet());
+            itemLocks.lock(itemIds);
+            int updated = bookingRepository.updateStatusByIdInAndStatus(
+                    waiting.stream().map(BookingView::getId).collect(Collectors.toList()), Status.WAITING, status);
+            if (updated != waiting.size()) {
+                throw new ConflictException("Статус части бронирований уже изменился, повторите запрос");
+            }
+            if (status == Status.APPROVED) {
+                itemIds.forEach(timelines::invalidate);
+            } else {
+                waiting.forEach(intervalIndex::remove);
+                itemIds.forEach(availabilityIndex::release);
+            }
+        }
+
+        List<BookingConfirmationResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookingView booking = owned.get(id);
+            if (booking == null) {
+                results.add(BookingConfirmationResultDto.builder()
+                        .bookingId(id)
+                        .status(HttpStatus.NOT_FOUND.value())
+                        .error("Бронирование с айди " + id + " не найдено среди бронирований вещей пользователя")
+                        .build());
+            } else if (booking.getStatus() != Status.WAITING) {
+                results.add(BookingConfirmationResultDto.builder()
+                        .bookingId(id)
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .bookingStatus(booking.getStatus())
+                        .error("Бронирование с айди " + id + " уже рассмотрено")
+                        .build());
+            } else {
+                results.add(BookingConfirmationResultDto.builder()
+                        .bookingId(id)
+                        .status(HttpStatus.OK.value())
+                        .bookingStatus(status)
+                        .build());
+            }
+        }
+        log.info("Пакетное подтверждение бронирований владельцем с айди " + userId + ": изменено " + waiting.size()
+                + " из " + ids.size());
+        return results;
+    }
+
+    private void validateBooking(BookingDtoReceived bookingDto, Item item, Long userId) {
+        if (item.getOwner().getId().equals(userId)) {
+            throw new DataNotFoundException("Владелец вещи не может создать ее бронирование");
+        }
+        if (!item.getAvailable()) {
+            throw new InvalidException("Вещь с айди " + item.getId() + " недоступна для бронирования");
+        }
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            throw new InvalidException("Не указаны дата и время начала или окончания брони");
+        }
+        if (bookingDto.getStart().isBefore(LocalDateTime.now()) || bookingDto.getEnd().isBefore(LocalDateTime.now())) {
+            throw new InvalidException("Бронь не может начаться или закончиться раньше текущей даты и времени");
+        }
+        if (bookingDto.getEnd().isBefore(bookingDto.getStart()) || bookingDto.getEnd().isEqual(bookingDto.getStart())) {
+            throw new InvalidException("Бронь не может закончиться одновременно или раньше даты и времени начала брони");
+        }
+    }
+
+    private static boolean isOverlap(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException
+                    && H2BookingOverlapTrigger.OVERLAP_STATE.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DataNotFoundException bookerNotFound(Long userId, DataIntegrityViolationException e) {
+        knownUsers.evict(userId);
+        log.warn("Бронирование пользователем с айди " + userId + " нарушило ограничение целостности", e);
+        return new DataNotFoundException("Пользователь с айди " + userId + " не найден");
+    }
+
+    private BookingBatchResultDto rejected(int index, HttpStatus status, String error) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .build();
     }
 
     @Transactional(readOnly = true)
     @Override
     public BookingDtoReturned getBookingById(Long bookingId, Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new DataNotFoundException("Бронирование с айди " + bookingId + " не найдено"));
-        if (!user.getId().equals(booking.getItem().getOwner().getId()) &&
-                !user.getId().equals(booking.getBooker().getId())) {
+        if (!userId.equals(booking.getItem().getOwner().getId()) &&
+                !userId.equals(booking.getBooker().getId())) {
             throw new DataNotFoundException("Бронирование недоступно, пользователь с айди "
                     + userId + " не является владельцем или арендатором вещи");
         }
@@ -107,79 +314,143 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     @Override
     public List<BookingDtoReturned> getAllBookingsByUser(String state, Long userId, Integer from, Integer size) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
-        List<Booking> bookings = bookingRepository.findBookingsByBookerIdOrderByIdDesc(user.getId(),
-                PageRequest.of(from / size, size));
-        List<Booking> bookingsByState;
-        try {
-            bookingsByState = bookingsByState(State.valueOf(state.toUpperCase()), bookings);
-        } catch (IllegalArgumentException e) {
-            throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        return bookingsByState.stream()
-                .map(BookingMapper::toBookingDtoReturned)
-                .collect(Collectors.toList());
+        return getBookingPageByUser(state, userId, from, size, null).getItems();
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<BookingDtoReturned> getAllBookingsByOwner(String state, Long ownerId, Integer from, Integer size) {
-        User user = userRepository.findById(ownerId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + ownerId + " не найден"));
-        List<Booking> bookings = bookingRepository.findBookingsByItemOwnerIdOrderByIdDesc(user.getId(),
-                PageRequest.of(from / size, size));
-        List<Booking> bookingsByState;
+        return getBookingPageByOwner(state, ownerId, from, size, null).getItems();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookingDtoReturned> getBookingPageByUser(String state, Long userId, Integer from, Integer size,
+                                                               String after) {
+        State bookingState = toState(state);
+        List<BookingListView> bookings = after == null
+                ? bookingsByBooker(bookingState, userId, OffsetPageRequest.of(from, size))
+                : bookingsByBookerAfter(bookingState, userId, Cursor.decodeKeyed(after), size);
+        return CursorPage.of(bookings, size, BookingMapper::toBookingDtoReturned, b -> toCursor(bookingState, b));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookingDtoReturned> getBookingPageByOwner(String state, Long ownerId, Integer from, Integer size,
+                                                                String after) {
+        State bookingState = toState(state);
+        List<BookingListView> bookings = after == null
+                ? bookingsByOwner(bookingState, ownerId, OffsetPageRequest.of(from, size))
+                : bookingsByOwnerAfter(bookingState, ownerId, Cursor.decodeKeyed(after), size);
+        return CursorPage.of(bookings, size, BookingMapper::toBookingDtoReturned, b -> toCursor(bookingState, b));
+    }
+
+    private State toState(String state) {
         try {
-            bookingsByState = bookingsByState(State.valueOf(state.toUpperCase()), bookings);
+            return State.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return bookingsByState.stream()
-                .map(BookingMapper::toBookingDtoReturned)
-                .collect(Collectors.toList());
     }
 
-    private List<Booking> bookingsByState(State state, List<Booking> bookingsDB) {
-        List<Booking> bookings = new ArrayList<>();
+    private List<BookingListView> bookingsByBooker(State state, Long bookerId, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case CURRENT:
+                return bookingRepository.findBookingsByBookerIdAndStartIsBeforeAndEndIsAfterOrderByEndDescIdDesc(
+                        bookerId, now, now, pageable);
+            case PAST:
+                return bookingRepository.findBookingsByBookerIdAndEndIsBeforeOrderByStartDescIdDesc(
+                        bookerId, now, pageable);
+            case FUTURE:
+                return bookingRepository.findBookingsByBookerIdAndStartIsAfterOrderByStartDescIdDesc(
+                        bookerId, now, pageable);
+            case WAITING:
+                return bookingRepository.findBookingsByBookerIdAndStatusOrderByStartDescIdDesc(
+                        bookerId, Status.WAITING, pageable);
+            case REJECTED:
+                return bookingRepository.findBookingsByBookerIdAndStatusOrderByStartDescIdDesc(
+                        bookerId, Status.REJECTED, pageable);
+            default:
+                return bookingRepository.findBookingsByBookerIdOrderByStartDescIdDesc(bookerId, pageable);
+        }
+    }
+
+    private List<BookingListView> bookingsByOwner(State state, Long ownerId, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case CURRENT:
+                return bookingRepository.findBookingsByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDescIdDesc(
+                        ownerId, now, now, pageable);
+            case PAST:
+                return bookingRepository.findBookingsByItemOwnerIdAndEndIsBeforeOrderByStartDescIdDesc(
+                        ownerId, now, pageable);
+            case FUTURE:
+                return bookingRepository.findBookingsByItemOwnerIdAndStartIsAfterOrderByStartDescIdDesc(
+                        ownerId, now, pageable);
+            case WAITING:
+                return bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+                        ownerId, Status.WAITING, pageable);
+            case REJECTED:
+                return bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+                        ownerId, Status.REJECTED, pageable);
+            default:
+                return bookingRepository.findBookingsByItemOwnerIdOrderByStartDescIdDesc(ownerId, pageable);
+        }
+    }
+
+    private List<BookingListView> bookingsByBookerAfter(State state, Long bookerId, Cursor cursor, Integer size) {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable limit = OffsetPageRequest.of(0, size);
         switch (state) {
-            case ALL:
-                bookings = bookingsDB.stream()
-                        .sorted(Comparator.comparing(Booking::getStart).reversed())
-                        .collect(Collectors.toList());
-                break;
+            case CURRENT:
+                return bookingRepository.findCurrentBookingsByBookerIdAfter(
+                        bookerId, now, cursor.getKey(), cursor.getId(), limit);
+            case PAST:
+                return bookingRepository.findPastBookingsByBookerIdAfter(
+                        bookerId, now, cursor.getKey(), cursor.getId(), limit);
             case FUTURE:
-                bookings = bookingsDB.stream()
-                        .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                        .sorted(Comparator.comparing(Booking::getStart).reversed())
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findFutureBookingsByBookerIdAfter(
+                        bookerId, now, cursor.getKey(), cursor.getId(), limit);
+            case WAITING:
+                return bookingRepository.findBookingsByBookerIdAndStatusAfter(
+                        bookerId, Status.WAITING, cursor.getKey(), cursor.getId(), limit);
+            case REJECTED:
+                return bookingRepository.findBookingsByBookerIdAndStatusAfter(
+                        bookerId, Status.REJECTED, cursor.getKey(), cursor.getId(), limit);
+            default:
+                return bookingRepository.findBookingsByBookerIdAfter(bookerId, cursor.getKey(), cursor.getId(), limit);
+        }
+    }
+
+    private List<BookingListView> bookingsByOwnerAfter(State state, Long ownerId, Cursor cursor, Integer size) {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable limit = OffsetPageRequest.of(0, size);
+        switch (state) {
             case CURRENT:
-                bookings = bookingsDB.stream()
-                        .filter(b -> b.getStart().isBefore(LocalDateTime.now()) &&
-                                b.getEnd().isAfter(LocalDateTime.now()))
-                        .sorted(Comparator.comparing(Booking::getEnd).reversed())
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findCurrentBookingsByItemOwnerIdAfter(
+                        ownerId, now, cursor.getKey(), cursor.getId(), limit);
             case PAST:
-                bookings = bookingsDB.stream()
-                        .filter(b -> b.getEnd().isBefore(LocalDateTime.now()))
-                        .sorted(Comparator.comparing(Booking::getStart).reversed())
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findPastBookingsByItemOwnerIdAfter(
+                        ownerId, now, cursor.getKey(), cursor.getId(), limit);
+            case FUTURE:
+                return bookingRepository.findFutureBookingsByItemOwnerIdAfter(
+                        ownerId, now, cursor.getKey(), cursor.getId(), limit);
             case WAITING:
-                bookings = bookingsDB.stream()
-                        .filter(b -> b.getStatus().equals(Status.WAITING))
-                        .sorted(Comparator.comparing(Booking::getStart).reversed())
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findBookingsByItemOwnerIdAndStatusAfter(
+                        ownerId, Status.WAITING, cursor.getKey(), cursor.getId(), limit);
             case REJECTED:
-                bookings = bookingsDB.stream()
-                        .filter(b -> b.getStatus().equals(Status.REJECTED))
-                        .sorted(Comparator.comparing(Booking::getStart).reversed())
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findBookingsByItemOwnerIdAndStatusAfter(
+                        ownerId, Status.REJECTED, cursor.getKey(), cursor.getId(), limit);
+            default:
+                return bookingRepository.findBookingsByItemOwnerIdAfter(ownerId, cursor.getKey(), cursor.getId(), limit);
+        }
+    }
+
+    private Cursor toCursor(State state, BookingListView booking) {
+        if (state == State.CURRENT) {
+            return Cursor.of(booking.getEnd(), booking.getId());
         }
-        return bookings;
+        return Cursor.of(booking.getStart(), booking.getId());
     }
 }
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.server.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemLocks {
+    ReentrantLock[] stripes;
+    long timeoutNanos;
+    Counter acquired;
+    Counter contended;
+    Counter timeouts;
+    Timer waitTimer;
+
+    public ItemLocks(MeterRegistry registry,
+                     @Value("${shareit.booking.lock-stripes}") int stripes,
+                     @Value("${shareit.booking.lock-timeout}") Duration timeout) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+        this.acquired = registry.counter("shareit.booking.lock.acquired");
+        this.contended = registry.counter("shareit.booking.lock.contended");
+        this.timeouts = registry.counter("shareit.booking.lock.timeouts");
+        this.waitTimer = Timer.builder("shareit.booking.lock.wait")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("shareit.booking.lock.queued", this, ItemLocks::queued).register(registry);
+    }
+
+    public void lock(Long itemId) {
+        checkTransaction();
+        lockStripe(stripe(itemId), itemId);
+    }
+
+    public void lock(Collection<Long> itemIds) {
+        checkTransaction();
+        Map<Integer, Long> stripeItems = new TreeMap<>();
+        for (Long itemId : itemIds) {
+            stripeItems.putIfAbsent(stripe(itemId), itemId);
+        }
+        stripeItems.forEach(this::lockStripe);
+    }
+
+    int stripe(Long itemId) {
+        long hash = itemId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (stripes.length - 1);
+    }
+
+    private void checkTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+    }
+
+    private void lockStripe(int stripe, Long itemId) {
+        ReentrantLock lock = stripes[stripe];
+        if (!lock.tryLock()) {
+            contended.increment();
+            long started = System.nanoTime();
+            boolean locked;
+            try {
+                locked = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                locked = false;
+            }
+            waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (!locked) {
+                timeouts.increment();
+                log.warn("Не удалось дождаться блокировки вещи с айди " + itemId);
+                throw new ConflictException("Вещь с айди " + itemId + " сейчас изменяется, повторите попытку");
+            }
+        }
+        acquired.increment();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private double queued() {
+        int queued = 0;
+        for (ReentrantLock stripe : stripes) {
+            queued += stripe.getQueueLength();
+        }
+        return queued;
+    }
+}
@@ -4,7 +4,10 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingConfirmationResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
 import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
@@ -21,39 +24,56 @@ public class BookingController {
 
     @PostMapping
     BookingDtoReturned createBooking(@RequestBody BookingDtoReceived bookingDto,
-                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                     @SharerUserId Long userId) {
         log.info("Создание нового бронирования");
         return bookingService.createBooking(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    List<BookingBatchResultDto> createBookings(@RequestBody List<BookingDtoReceived> bookingDtos,
+                                               @SharerUserId Long userId) {
+        log.info("Пакетное создание " + bookingDtos.size() + " бронирований пользователем с айди " + userId);
+        return bookingService.createBookings(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     BookingDtoReturned bookingConfirmation(@PathVariable Long bookingId, @RequestParam Boolean approved,
-                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                           @SharerUserId Long userId) {
         log.info("Подтверждение бронирования с айди " + bookingId + " владельцем вещи");
         return bookingService.bookingConfirmation(bookingId, approved, userId);
     }
 
+    @PatchMapping("/batch")
+    List<BookingConfirmationResultDto> bookingConfirmations(@RequestBody List<Long> bookingIds,
+                                                            @RequestParam Boolean approved,
+                                                            @SharerUserId Long userId) {
+        log.info("Пакетное подтверждение " + bookingIds.size() + " бронирований владельцем с айди " + userId);
+        return bookingService.bookingConfirmations(bookingIds, approved, userId);
+    }
+
     @GetMapping("/{bookingId}")
-    BookingDtoReturned getBookingById(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    BookingDtoReturned getBookingById(@PathVariable Long bookingId, @SharerUserId Long userId) {
         log.info("Просмотр бронирования с айди " + bookingId);
         return bookingService.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    List<BookingDtoReturned> getAllBookingsByUser(@RequestParam(defaultValue = "ALL") String state,
-                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(defaultValue = "0") Integer from,
-                                                  @RequestParam(defaultValue = "10") Integer size) {
+    ResponseEntity<List<BookingDtoReturned>> getAllBookingsByUser(@RequestParam(defaultValue = "ALL") String state,
+                                                                  @SharerUserId Long userId,
+                                                                  @RequestParam(defaultValue = "0") Integer from,
+                                                                  @RequestParam(defaultValue = "10") Integer size,
+                                                                  @RequestParam(required = false) String after) {
         log.info("Просмотр бронирований пользователем с айди " + userId);
-        return bookingService.getAllBookingsByUser(state, userId, from, size);
+        return bookingService.getBookingPageByUser(state, userId, from, size, after).toResponseEntity();
     }
 
     @GetMapping("/owner")
-    List<BookingDtoReturned> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(defaultValue = "10") Integer size) {
+    ResponseEntity<List<BookingDtoReturned>> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
+                                                                   @SharerUserId Long userId,
+                                                                   @RequestParam(defaultValue = "0") Integer from,
+                                                                   @RequestParam(defaultValue = "10") Integer size,
+                                                                   @RequestParam(required = false) String after) {
         log.info("Просмотр бронирований владельцем с айди " + userId);
-        return bookingService.getAllBookingsByOwner(state, userId, from, size);
+        return bookingService.getBookingPageByOwner(state, userId, from, size, after).toResponseEntity();
     }
 }
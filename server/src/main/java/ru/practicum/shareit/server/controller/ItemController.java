@@ -4,12 +4,18 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.server.item.service.ItemServiceImpl;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -21,44 +27,81 @@ public class ItemController {
     final ItemServiceImpl service;
 
     @PostMapping
-    ItemDto createItem(@RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    ItemDto createItem(@RequestBody ItemDto itemDto, @SharerUserId Long userId) {
         log.info("Добавление новой вещи пользователем с айди " + userId);
         return service.createItem(itemDto, userId);
     }
 
     @PostMapping("/{itemId}/comment")
     CommentDto commentItem(@PathVariable Long itemId, @RequestBody CommentDto commentDto,
-                           @RequestHeader("X-Sharer-User-Id") Long userId) {
+                           @SharerUserId Long userId) {
         log.info("Добавление нового коментария пользователем с айди " + userId + " к вещи с айди " + itemId);
         return service.commentItem(itemId, commentDto, userId);
     }
 
+    @GetMapping("/{itemId}/comments")
+    ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                 @SharerUserId(checkExists = false) Long userId,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Просмотр коментариев к вещи с айди " + itemId + " пользователем с айди " + userId);
+        return service.getCommentPage(itemId, after, limit).toResponseEntity();
+    }
+
     @PatchMapping("/{itemId}")
     ItemDto updateItem(@PathVariable Long itemId, @RequestBody ItemDto itemDto,
-                       @RequestHeader("X-Sharer-User-Id") Long userId) {
+                       @SharerUserId Long userId) {
         log.info("Обновление данных вещи с айди " + itemId);
         return service.updateItem(itemId, itemDto, userId);
     }
 
     @GetMapping("/{itemId}")
-    ItemDtoOwner viewItemInformation(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    ItemDtoOwner viewItemInformation(@PathVariable Long itemId, @SharerUserId(checkExists = false) Long userId) {
         log.info("Просмотр информации о вещи с айди " + itemId);
         return service.getItemById(itemId, userId);
     }
 
     @GetMapping
-    List<ItemDtoOwner> viewAllItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                    @RequestParam(defaultValue = "0") Integer from,
-                                    @RequestParam(defaultValue = "10") Integer size) {
+    ResponseEntity<List<ItemDtoOwner>> viewAllItems(@SharerUserId(checkExists = false) Long userId,
+                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                    @RequestParam(defaultValue = "10") Integer size,
+                                                    @RequestParam(required = false) String after) {
         log.info("Запрошен список всех вещей пользователя с айди " + userId);
-        return service.viewAllItems(userId, from, size);
+        return service.viewItemPage(userId, from, size, after).toResponseEntity();
     }
 
     @GetMapping("/search")
-    List<ItemDto> searchItems(@RequestParam String text, @RequestHeader("X-Sharer-User-Id") Long userId,
-                              @RequestParam(defaultValue = "0") Integer from,
-                              @RequestParam(defaultValue = "10") Integer size) {
+    ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                              @SharerUserId(checkExists = false) Long userId,
+                                              @RequestParam(defaultValue = "0") Integer from,
+                                              @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableFrom,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableTo) {
         log.info("Поиск вещей содержащих '" + text + "' в названии или описании пользователем с айди " + userId);
-        return service.searchItems(text, from, size);
+        return service.searchItemPage(text, from, size, after, availableFrom, availableTo).toResponseEntity();
+    }
+
+    @GetMapping("/suggest")
+    List<ItemSuggestionDto> suggestItems(@RequestParam String prefix,
+                                         @SharerUserId(checkExists = false) Long userId,
+                                         @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Подсказки для '" + prefix + "' пользователю с айди " + userId);
+        return service.suggestItems(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId,
+                                            @SharerUserId(checkExists = false) Long userId,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                            LocalDateTime from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                            LocalDateTime to,
+                                            @RequestParam(defaultValue = "false") Boolean includeWaiting) {
+        log.info("Календарь занятости вещи с айди " + itemId + " с " + from + " по " + to
+                + " для пользователя с айди " + userId);
+        return service.getItemAvailability(itemId, from, to, includeWaiting);
     }
 }
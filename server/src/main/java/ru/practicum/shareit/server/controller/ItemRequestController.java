@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.service.RequestServiceImpl;
@@ -20,27 +21,28 @@ public class ItemRequestController {
 
     @PostMapping
     ItemRequestDto createRequest(@RequestBody ItemRequestDto itemRequestDto,
-                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                 @SharerUserId Long userId) {
         log.info("Создание запроса на вещь пользователем с айди " + userId);
         return service.createRequest(itemRequestDto, userId);
     }
 
     @GetMapping
-    List<ItemRequestDto> getUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    List<ItemRequestDto> getUserRequests(@SharerUserId Long userId) {
         log.info("Просмотр запросов пользователя с айди " + userId);
         return service.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(defaultValue = "10") Integer size) {
+    ResponseEntity<List<ItemRequestDto>> getAllRequests(@SharerUserId Long userId,
+                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                        @RequestParam(defaultValue = "10") Integer size,
+                                                        @RequestParam(required = false) String after) {
         log.info("Просмотр всех запросов пользователем с айди " + userId);
-        return service.getAllRequests(userId, from, size);
+        return service.getRequestPage(userId, from, size, after).toResponseEntity();
     }
 
     @GetMapping("/{requestId}")
-    ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long requestId) {
+    ItemRequestDto getRequestById(@SharerUserId Long userId, @PathVariable Long requestId) {
         log.info("Просмотр запроса с айди" + requestId + " пользователем с айди " + userId);
         return service.getRequestById(userId, requestId);
     }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.server.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharerUserId {
+    boolean checkExists() default true;
+}
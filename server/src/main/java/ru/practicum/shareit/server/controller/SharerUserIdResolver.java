@@ -0,0 +1,53 @@
+package ru.practicum.shareit.server.controller;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import ru.practicum.shareit.server.user.service.KnownUsers;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SharerUserIdResolver implements HandlerMethodArgumentResolver {
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final String ATTRIBUTE = SharerUserIdResolver.class.getName() + ".userId";
+
+    KnownUsers knownUsers;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(SharerUserId.class) && parameter.getParameterType() == Long.class;
+    }
+
+    @Override
+    public Long resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        Long resolved = (Long) webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved != null) {
+            return resolved;
+        }
+        String header = webRequest.getHeader(HEADER);
+        if (header == null) {
+            throw new MissingRequestHeaderException(HEADER, parameter);
+        }
+        Long userId;
+        try {
+            userId = Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            throw new MethodArgumentTypeMismatchException(header, Long.class, HEADER, parameter, e);
+        }
+        if (!parameter.getParameterAnnotation(SharerUserId.class).checkExists()) {
+            return userId;
+        }
+        knownUsers.checkExists(userId);
+        webRequest.setAttribute(ATTRIBUTE, userId, RequestAttributes.SCOPE_REQUEST);
+        return userId;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.server.datasource;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PrimaryReads {
+    boolean routed;
+    TransactionTemplate primary;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        Optional<ReplicaRoutingDataSource> routingDataSource) {
+        this.routed = routingDataSource.isPresent();
+        this.primary = new TransactionTemplate(transactionManager);
+        this.primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T read(Supplier<T> query) {
+        if (!routed || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return query.get();
+        }
+        return primary.execute(status -> query.get());
+    }
+}
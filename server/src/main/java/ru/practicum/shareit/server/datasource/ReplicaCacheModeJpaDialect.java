@@ -0,0 +1,48 @@
+package ru.practicum.shareit.server.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+
+public class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReadOnlyTransactionData(transactionData, session, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(@Nullable Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData) {
+            ReadOnlyTransactionData readOnly = (ReadOnlyTransactionData) transactionData;
+            readOnly.session.setCacheMode(readOnly.previousCacheMode);
+            super.cleanupTransaction(readOnly.transactionData);
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private static class ReadOnlyTransactionData {
+        final Object transactionData;
+        final Session session;
+        final CacheMode previousCacheMode;
+
+        ReadOnlyTransactionData(Object transactionData, Session session, CacheMode previousCacheMode) {
+            this.transactionData = transactionData;
+            this.session = session;
+            this.previousCacheMode = previousCacheMode;
+        }
+    }
+}
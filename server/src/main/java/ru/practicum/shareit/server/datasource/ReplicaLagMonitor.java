@@ -0,0 +1,65 @@
+package ru.practicum.shareit.server.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReplicaLagMonitor implements MeterBinder {
+    ReplicaRoutingDataSource routing;
+    String lagQuery;
+    double maxLagSeconds;
+    Map<String, Double> lags = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routing, ReplicaProperties properties) {
+        this.routing = routing;
+        this.lagQuery = properties.getLagQuery();
+        this.maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String replica : routing.getReplicas()) {
+            Gauge.builder("shareit.datasource.replica.lag", lags, values -> values.getOrDefault(replica, Double.NaN))
+                    .tag("replica", replica)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.lag-check}")
+    public void check() {
+        for (String replica : routing.getReplicas()) {
+            double lag = measure(replica);
+            lags.put(replica, lag);
+            boolean healthy = lag <= maxLagSeconds;
+            if (routing.markHealthy(replica, healthy)) {
+                if (healthy) {
+                    log.info("Реплика " + replica + " снова принимает чтение, отставание " + lag + " с");
+                } else {
+                    log.warn("Реплика " + replica + " исключена из чтения, отставание " + lag + " с");
+                }
+            }
+        }
+    }
+
+    private double measure(String replica) {
+        try {
+            Double lag = new JdbcTemplate(routing.getReplica(replica)).queryForObject(lagQuery, Double.class);
+            return lag == null ? Double.NaN : lag;
+        } catch (DataAccessException e) {
+            log.warn("Не удалось проверить отставание реплики " + replica + ": " + e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
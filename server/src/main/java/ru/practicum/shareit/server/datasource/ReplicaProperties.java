@@ -0,0 +1,30 @@
+package ru.practicum.shareit.server.datasource;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties("shareit.datasource")
+public class ReplicaProperties {
+    List<Replica> replicas = new ArrayList<>();
+    Duration maxLag;
+    String lagQuery;
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Replica {
+        String url;
+        String username;
+        String password;
+    }
+}
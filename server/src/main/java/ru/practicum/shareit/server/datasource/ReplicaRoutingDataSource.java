@@ -0,0 +1,105 @@
+package ru.practicum.shareit.server.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, AutoCloseable {
+    public static final String PRIMARY = "primary";
+    private static final String ROUTE_METRIC = "shareit.datasource.route";
+
+    List<String> replicas;
+    Set<String> healthy = ConcurrentHashMap.newKeySet();
+    AtomicInteger next = new AtomicInteger();
+    Map<String, LongAdder> reads = new HashMap<>();
+    LongAdder writes = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = List.copyOf(replicas.keySet());
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        targets.keySet().forEach(route -> reads.put((String) route, new LongAdder()));
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        reads.forEach((route, count) -> FunctionCounter.builder(ROUTE_METRIC, count, LongAdder::sum)
+                .tag("route", route)
+                .tag("read_only", "true")
+                .register(registry));
+        FunctionCounter.builder(ROUTE_METRIC, writes, LongAdder::sum)
+                .tag("route", PRIMARY)
+                .tag("read_only", "false")
+                .register(registry);
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof HikariDataSource) {
+                HikariDataSource pool = (HikariDataSource) dataSource;
+                if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+                    pool.setMetricRegistry(registry);
+                }
+            }
+        }
+    }
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    public DataSource getReplica(String replica) {
+        return getResolvedDataSources().get(replica);
+    }
+
+    public boolean markHealthy(String replica, boolean isHealthy) {
+        return isHealthy ? healthy.add(replica) : healthy.remove(replica);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        String route = nextReplica();
+        reads.get(route).increment();
+        return route;
+    }
+
+    private String nextReplica() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String replica = replicas.get((start + i) % replicas.size());
+            if (healthy.contains(replica)) {
+                return replica;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package ru.practicum.shareit.server.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.persistence.EntityNotFoundException;
 import java.util.Map;
 
 @Slf4j
@@ -25,6 +27,25 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(Map.of("Ошибка параметра айди", e.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleEntityNotFound(final EntityNotFoundException e) {
+        log.info("Ошибка 404, связанная сущность удалена");
+        return new ResponseEntity<>(Map.of("Ошибка параметра айди", e.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(final ConflictException e) {
+        log.info("Ошибка 409, конфликт данных");
+        return new ResponseEntity<>(Map.of("Конфликт", e.getMessage()), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(final OptimisticLockingFailureException e) {
+        log.info("Ошибка 409, данные изменены параллельным запросом");
+        return new ResponseEntity<>(Map.of("Конфликт", "Данные были изменены параллельно, повторите попытку"),
+                HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<Map<String, String>> handleValidation(final ValidationException e) {
         log.info("Ошибка 500, ошибка валидации");
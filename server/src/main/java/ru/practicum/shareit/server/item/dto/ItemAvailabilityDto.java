@@ -0,0 +1,20 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemAvailabilityDto {
+    Long itemId;
+    LocalDateTime from;
+    LocalDateTime to;
+    List<TimeSlotDto> busy;
+    List<TimeSlotDto> free;
+}
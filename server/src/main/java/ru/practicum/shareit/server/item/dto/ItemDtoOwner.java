@@ -20,4 +20,5 @@ public class ItemDtoOwner {
     BookingDto lastBooking;
     BookingDto nextBooking;
     List<CommentDto> comments;
+    Long commentCount;
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.server.item.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TimeSlotDto {
+    LocalDateTime start;
+    LocalDateTime end;
+}
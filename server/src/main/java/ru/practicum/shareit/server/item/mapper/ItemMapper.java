@@ -1,9 +1,11 @@
 package ru.practicum.shareit.server.item.mapper;
 
 import lombok.experimental.UtilityClass;
+import org.hibernate.Hibernate;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.model.ItemView;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.user.model.User;
 
@@ -35,11 +37,21 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .owner(item.getOwner())
+                .owner((User) Hibernate.unproxy(item.getOwner()))
                 .requestId(requestId)
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
     public static Item toItem(ItemDto itemDto, User user, ItemRequest itemRequest) {
         return Item.builder()
                 .id(itemDto.getId())
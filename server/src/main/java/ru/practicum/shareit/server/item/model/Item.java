@@ -2,6 +2,9 @@ package ru.practicum.shareit.server.item.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.server.cache.EntityCacheConfig;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.user.model.User;
 
@@ -9,6 +12,9 @@ import javax.persistence.*;
 
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.ITEMS)
+@NamedEntityGraph(name = "Item.owner", attributeNodes = @NamedAttributeNode("owner"))
 @Getter
 @Setter
 @Builder
@@ -17,7 +23,8 @@ import javax.persistence.*;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
     Long id;
     @Column(name = "name", nullable = false)
     String name;
@@ -25,10 +32,10 @@ public class Item {
     String description;
     @Column(name = "is_available", nullable = false)
     Boolean available;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     User owner;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id", referencedColumnName = "id")
     ItemRequest request;
 }
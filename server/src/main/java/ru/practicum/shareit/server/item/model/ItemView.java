@@ -0,0 +1,13 @@
+package ru.practicum.shareit.server.item.model;
+
+public interface ItemView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+}
@@ -1,10 +1,18 @@
 package ru.practicum.shareit.server.item.repo;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.server.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findCommentByItemId(Long itemId);
+    @EntityGraph("Comment.author")
+    List<Comment> findByItemIdOrderByIdDesc(Long itemId, Pageable pageable);
+
+    @EntityGraph("Comment.author")
+    List<Comment> findByItemIdAndIdLessThanOrderByIdDesc(Long itemId, Long id, Pageable pageable);
+
+    boolean existsByItemIdAndAuthorId(Long itemId, Long authorId);
 }
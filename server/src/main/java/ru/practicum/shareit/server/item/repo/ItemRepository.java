@@ -1,21 +1,64 @@
 package ru.practicum.shareit.server.item.repo;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.model.ItemView;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String COMMENT_COUNT_SPACE = "items.comment_count";
+
+    @Query(" select i.id from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available = true " +
+            "order by i.id")
+    List<Long> search(String text, Pageable pageable);
+
+    @Query(" select i.id from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available = true " +
+            "and i.id > ?2 " +
+            "order by i.id")
+    List<Long> searchAfter(String text, Long id, Pageable pageable);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "r.id as requestId from Item i left join i.request r where i.id in ?1")
+    List<ItemView> findItemViewsByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Item.owner")
+    Optional<Item> findWithOwnerById(Long id);
 
-    @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')) " +
-            "and i.available = true")
-    List<Item> search(String text, Pageable pageable);
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
 
     List<Item> findByOwnerIdOrderByIdAsc(Long userId, Pageable pageable);
 
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<Item> findItemsByRequestId(Long requestId);
+
+    List<Item> findItemsByRequestIdIn(Collection<Long> requestIds);
+
+    @Query(value = "select comment_count from items where id = ?1", nativeQuery = true)
+    Long findCommentCountById(Long itemId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = COMMENT_COUNT_SPACE))
+    @Query(value = "update items set comment_count = comment_count + 1 where id = ?1", nativeQuery = true)
+    void incrementCommentCount(Long itemId);
 }
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.server.item.search;
+
+import java.util.Arrays;
+
+public final class BusyDays {
+    public static final BusyDays EMPTY = new BusyDays(new int[0], new int[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+
+    private BusyDays(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public boolean intersects(int from, int to) {
+        int run = lastStartingAtOrBefore(to);
+        return run >= 0 && ends[run] >= from;
+    }
+
+    public BusyDays with(int start, int end) {
+        int first = lastStartingAtOrBefore(start - 1);
+        if (first < 0 || ends[first] < start - 1) {
+            first++;
+        }
+        int last = lastStartingAtOrBefore(end + 1);
+        if (first <= last) {
+            start = Math.min(start, starts[first]);
+            end = Math.max(end, ends[last]);
+        }
+        int removed = Math.max(0, last - first + 1);
+        int[] newStarts = new int[starts.length - removed + 1];
+        int[] newEnds = new int[newStarts.length];
+        System.arraycopy(starts, 0, newStarts, 0, first);
+        System.arraycopy(ends, 0, newEnds, 0, first);
+        newStarts[first] = start;
+        newEnds[first] = end;
+        System.arraycopy(starts, first + removed, newStarts, first + 1, starts.length - first - removed);
+        System.arraycopy(ends, first + removed, newEnds, first + 1, ends.length - first - removed);
+        return new BusyDays(newStarts, newEnds);
+    }
+
+    public BusyDays with(BusyDays other) {
+        BusyDays merged = this;
+        for (int i = 0; i < other.starts.length; i++) {
+            merged = merged.with(other.starts[i], other.ends[i]);
+        }
+        return merged;
+    }
+
+    public BusyDays dropBefore(int day) {
+        int keep = 0;
+        while (keep < ends.length && ends[keep] < day) {
+            keep++;
+        }
+        if (keep == 0) {
+            return this;
+        }
+        return keep == ends.length ? EMPTY
+                : new BusyDays(Arrays.copyOfRange(starts, keep, starts.length),
+                Arrays.copyOfRange(ends, keep, ends.length));
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    private int lastStartingAtOrBefore(int day) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.exception.InvalidException;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.transaction.AfterCommit;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    JdbcTemplate jdbcTemplate;
+    ItemSearchIndex index = new ItemSearchIndex();
+
+    @PostConstruct
+    void build() {
+        jdbcTemplate.query("select id, name, description, is_available from items", rs -> {
+            index.put(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                    rs.getBoolean("is_available"));
+        });
+        log.info("Поисковый индекс построен, вещей в индексе: " + index.size());
+    }
+
+    @Override
+    public List<ItemSearchHit> search(String text, Pageable pageable) {
+        return index.search(text, (int) pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public List<ItemSearchHit> searchAfter(String text, Cursor after, Integer size) {
+        if (after.getScore() == null) {
+            throw new InvalidException("Некорректный курсор поиска");
+        }
+        return index.searchAfter(text, after.getScore(), after.getId(), size);
+    }
+
+    @Override
+    public void index(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        AfterCommit.run(() -> index.put(id, name, description, available));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        AfterCommit.run(() -> index.remove(itemId));
+    }
+}
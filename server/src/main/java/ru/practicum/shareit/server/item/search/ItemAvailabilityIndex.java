@@ -0,0 +1,114 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.transaction.AfterCommit;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemAvailabilityIndex {
+    private static final String BUSY_BOOKINGS = "select item_id, start_time, end_time from bookings " +
+            "where status in ('WAITING', 'APPROVED') and end_time > ?";
+
+    JdbcTemplate jdbcTemplate;
+    AtomicLong booked = new AtomicLong();
+    @NonFinal
+    volatile Map<Long, BusyDays> items = new ConcurrentHashMap<>();
+    @NonFinal
+    volatile Map<Long, BusyDays> rebuilding;
+
+    @PostConstruct
+    public synchronized void build() {
+        Map<Long, BusyDays> built = new ConcurrentHashMap<>();
+        rebuilding = built;
+        try {
+            jdbcTemplate.query(BUSY_BOOKINGS, rs -> {
+                mark(built, rs.getLong("item_id"), rs.getObject("start_time", LocalDateTime.class),
+                        rs.getObject("end_time", LocalDateTime.class));
+            }, LocalDate.now().atStartOfDay());
+            items = built;
+        } finally {
+            rebuilding = null;
+        }
+        log.info("Календарь занятости построен, вещей с бронированиями: " + built.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDate from, LocalDate to) {
+        BusyDays days = items.get(itemId);
+        return days == null || !days.intersects((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public void book(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        AfterCommit.run(() -> {
+            booked.incrementAndGet();
+            forEachIndex(index -> mark(index, itemId, start, end));
+        });
+    }
+
+    public void release(Booking booking) {
+        release(booking.getItem().getId());
+    }
+
+    public void release(Long itemId) {
+        AfterCommit.run(() -> {
+            long seen = booked.get();
+            BusyDays reloaded = load(itemId);
+            forEachIndex(index -> index.compute(itemId, (id, days) -> {
+                BusyDays current = days == null || booked.get() == seen ? reloaded : reloaded.with(days);
+                return current.isEmpty() ? null : current;
+            }));
+        });
+    }
+
+    private BusyDays load(Long itemId) {
+        BusyDays loaded = BusyDays.EMPTY;
+        for (LocalDateTime[] busy : jdbcTemplate.query(BUSY_BOOKINGS + " and item_id = ?",
+                (rs, rowNum) -> new LocalDateTime[]{rs.getObject("start_time", LocalDateTime.class),
+                        rs.getObject("end_time", LocalDateTime.class)},
+                LocalDate.now().atStartOfDay(), itemId)) {
+            loaded = loaded.with(firstDay(busy[0]), lastDay(busy[1]));
+        }
+        return loaded;
+    }
+
+    private void forEachIndex(Consumer<Map<Long, BusyDays>> action) {
+        Map<Long, BusyDays> building = rebuilding;
+        action.accept(items);
+        if (building != null) {
+            action.accept(building);
+        }
+    }
+
+    private static void mark(Map<Long, BusyDays> index, Long itemId, LocalDateTime start, LocalDateTime end) {
+        int today = (int) LocalDate.now().toEpochDay();
+        index.compute(itemId, (id, days) -> (days == null ? BusyDays.EMPTY : days.dropBefore(today))
+                .with(firstDay(start), lastDay(end)));
+    }
+
+    private static int firstDay(LocalDateTime start) {
+        return (int) start.toLocalDate().toEpochDay();
+    }
+
+    private static int lastDay(LocalDateTime end) {
+        return (int) end.minusNanos(1).toLocalDate().toEpochDay();
+    }
+}
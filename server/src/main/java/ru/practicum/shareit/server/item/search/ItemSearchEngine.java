@@ -0,0 +1,19 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.Cursor;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<ItemSearchHit> search(String text, Pageable pageable);
+
+    List<ItemSearchHit> searchAfter(String text, Cursor after, Integer size);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Long itemId) {
+    }
+}
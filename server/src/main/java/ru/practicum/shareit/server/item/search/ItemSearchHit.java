@@ -0,0 +1,21 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.server.pagination.Cursor;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemSearchHit {
+    Long id;
+    Double score;
+
+    public Cursor toCursor() {
+        return score == null ? Cursor.of(id) : Cursor.of(score, id);
+    }
+}
@@ -0,0 +1,473 @@
+package ru.practicum.shareit.server.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+public class ItemSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+    private static final int MIN_DEAD_DOCS_TO_COMPACT = 1024;
+    private static final int BLOCK_SIZE = 128;
+    private static final int LINEAR_PROBES = 8;
+    private static final int DENSE_RATIO = 32;
+    private static final int MERGE_STEPS_BEFORE_BITMAP = 1024;
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<BitSet> scratch = ThreadLocal.withInitial(BitSet::new);
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Integer> docsByItem = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private long[] itemIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private int docs;
+    private int liveDocs;
+    private long totalLength;
+
+    public void put(Long itemId, String name, String description, boolean isAvailable) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : tokenize(name)) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        lock.writeLock().lock();
+        try {
+            Integer previous = docsByItem.get(itemId);
+            if (previous != null) {
+                delete(previous);
+            }
+            int doc = docs++;
+            if (doc == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, doc * 2);
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            itemIds[doc] = itemId;
+            lengths[doc] = length;
+            live.set(doc);
+            available.set(doc, isAvailable);
+            liveDocs++;
+            totalLength += length;
+            docsByItem.put(itemId, doc);
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new Postings()).add(doc, frequency, length, itemId));
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsByItem.remove(itemId);
+            if (doc != null) {
+                delete(doc);
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ItemSearchHit> search(String text, int offset, int limit) {
+        int capacity = (int) Math.min((long) offset + limit, size());
+        TopHits top = new TopHits(capacity, Double.POSITIVE_INFINITY, Long.MIN_VALUE);
+        collect(text, top);
+        List<ItemSearchHit> hits = top.sorted();
+        return offset >= hits.size() ? new ArrayList<>() : hits.subList(offset, hits.size());
+    }
+
+    public List<ItemSearchHit> searchAfter(String text, double score, long itemId, int limit) {
+        TopHits top = new TopHits(Math.min(limit, size()), score, itemId);
+        collect(text, top);
+        return top.sorted();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : DELIMITER.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private void collect(String text, TopHits top) {
+        List<String> terms = tokenize(text);
+        if (terms.isEmpty() || top.capacity == 0) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = terms.stream().distinct().map(this::lookup).toArray(Postings[]::new);
+            for (Postings list : lists) {
+                if (list == null) {
+                    return;
+                }
+            }
+            Arrays.sort(lists, (left, right) -> Integer.compare(left.size, right.size));
+            double averageLength = liveDocs == 0 ? 1 : (double) totalLength / liveDocs;
+            double[] idf = new double[lists.length];
+            double othersBound = 0;
+            for (int i = 0; i < lists.length; i++) {
+                int df = Math.min(lists[i].size, liveDocs);
+                idf[i] = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                if (i > 0) {
+                    othersBound += bm25(idf[i], lists[i].maxFrequency, lists[i].minLength, averageLength);
+                }
+            }
+            int[] positions = new int[lists.length];
+            Postings first = lists[0];
+            boolean dense = lists.length > 1 && (long) first.size * DENSE_RATIO >= docs;
+            BitSet candidates = null;
+            int steps = 0;
+            int j = 0;
+            int checkedBlock = -1;
+            candidates:
+            while (j < first.size) {
+                int block = j / BLOCK_SIZE;
+                if (block != checkedBlock) {
+                    double bound = bm25(idf[0], first.blockMaxFrequencies[block], first.blockMinLengths[block],
+                            averageLength) + othersBound;
+                    if (top.cannotAccept(bound, first.blockMinItemIds[block])) {
+                        j = (block + 1) * BLOCK_SIZE;
+                        continue;
+                    }
+                    checkedBlock = block;
+                }
+                int doc = first.docs[j];
+                if (dense && candidates == null && ++steps > MERGE_STEPS_BEFORE_BITMAP) {
+                    candidates = intersect(lists);
+                }
+                if (candidates != null) {
+                    int candidate = candidates.nextSetBit(doc);
+                    if (candidate < 0) {
+                        break;
+                    }
+                    if (candidate != doc) {
+                        j = first.find(candidate, j);
+                        continue;
+                    }
+                }
+                for (int i = 1; i < lists.length; i++) {
+                    Postings list = lists[i];
+                    int position = list.find(doc, positions[i]);
+                    if (position < 0) {
+                        positions[i] = -position - 1;
+                        if (positions[i] == list.size) {
+                            break candidates;
+                        }
+                        position = first.find(list.docs[positions[i]], j + 1);
+                        j = position < 0 ? -position - 1 : position;
+                        continue candidates;
+                    }
+                    positions[i] = position;
+                }
+                if (available.get(doc)) {
+                    double score = bm25(idf[0], first.frequencies[j], lengths[doc], averageLength);
+                    for (int i = 1; i < lists.length; i++) {
+                        score += bm25(idf[i], lists[i].frequencies[positions[i]], lengths[doc], averageLength);
+                    }
+                    top.offer(score, itemIds[doc]);
+                }
+                j++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings lookup(String prefix) {
+        Collection<Postings> matches = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+        if (matches.size() <= 1) {
+            return matches.isEmpty() ? null : matches.iterator().next();
+        }
+        int total = 0;
+        for (Postings list : matches) {
+            total += list.size;
+        }
+        long[] entries = new long[total];
+        int count = 0;
+        for (Postings list : matches) {
+            for (int i = 0; i < list.size; i++) {
+                if (live.get(list.docs[i])) {
+                    entries[count++] = (long) list.docs[i] << Integer.SIZE | list.frequencies[i];
+                }
+            }
+        }
+        Arrays.sort(entries, 0, count);
+        Postings merged = new Postings();
+        int i = 0;
+        while (i < count) {
+            int doc = (int) (entries[i] >>> Integer.SIZE);
+            int frequency = 0;
+            while (i < count && (int) (entries[i] >>> Integer.SIZE) == doc) {
+                frequency += (int) entries[i++];
+            }
+            merged.add(doc, frequency, lengths[doc], itemIds[doc]);
+        }
+        return merged;
+    }
+
+    private BitSet intersect(Postings[] lists) {
+        BitSet candidates = scratch.get();
+        candidates.clear();
+        candidates.or(available);
+        for (Postings list : lists) {
+            candidates.and(list.bitmap());
+        }
+        return candidates;
+    }
+
+    private static double bm25(double idf, int frequency, int length, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void delete(int doc) {
+        live.clear(doc);
+        available.clear(doc);
+        liveDocs--;
+        totalLength -= lengths[doc];
+    }
+
+    private void compactIfSparse() {
+        if (docs - liveDocs > Math.max(MIN_DEAD_DOCS_TO_COMPACT, liveDocs)) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[docs];
+        int next = 0;
+        for (int doc = 0; doc < docs; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                itemIds[next] = itemIds[doc];
+                lengths[next] = lengths[doc];
+                available.set(next, available.get(doc));
+                docsByItem.put(itemIds[next], next);
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        live.clear();
+        live.set(0, next);
+        available.clear(next, docs);
+        docs = next;
+        postings.values().removeIf(list -> list.compact(remap, lengths, itemIds) == 0);
+    }
+
+    private static class Postings {
+        int[] docs = new int[4];
+        int[] frequencies = new int[4];
+        int[] blockMaxFrequencies = new int[1];
+        int[] blockMinLengths = new int[1];
+        long[] blockMinItemIds = new long[1];
+        int maxFrequency;
+        int minLength = Integer.MAX_VALUE;
+        int size;
+        volatile BitSet bitmap;
+
+        void add(int doc, int frequency, int length, long itemId) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            int block = size / BLOCK_SIZE;
+            if (size % BLOCK_SIZE == 0) {
+                if (block == blockMaxFrequencies.length) {
+                    blockMaxFrequencies = Arrays.copyOf(blockMaxFrequencies, block * 2);
+                    blockMinLengths = Arrays.copyOf(blockMinLengths, block * 2);
+                    blockMinItemIds = Arrays.copyOf(blockMinItemIds, block * 2);
+                }
+                blockMaxFrequencies[block] = frequency;
+                blockMinLengths[block] = length;
+                blockMinItemIds[block] = itemId;
+            } else {
+                blockMaxFrequencies[block] = Math.max(blockMaxFrequencies[block], frequency);
+                blockMinLengths[block] = Math.min(blockMinLengths[block], length);
+                blockMinItemIds[block] = Math.min(blockMinItemIds[block], itemId);
+            }
+            maxFrequency = Math.max(maxFrequency, frequency);
+            minLength = Math.min(minLength, length);
+            if (bitmap != null) {
+                bitmap.set(doc);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int find(int doc, int from) {
+            int linearEnd = Math.min(size, from + LINEAR_PROBES);
+            for (int i = from; i < linearEnd; i++) {
+                if (docs[i] >= doc) {
+                    return docs[i] == doc ? i : -i - 1;
+                }
+            }
+            int low = linearEnd;
+            int step = LINEAR_PROBES;
+            int high = low;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high = low + step;
+                step *= 2;
+            }
+            return Arrays.binarySearch(docs, low, Math.min(high + 1, size), doc);
+        }
+
+        BitSet bitmap() {
+            BitSet current = bitmap;
+            if (current == null) {
+                current = new BitSet();
+                for (int i = 0; i < size; i++) {
+                    current.set(docs[i]);
+                }
+                bitmap = current;
+            }
+            return current;
+        }
+
+        int compact(int[] remap, int[] lengths, long[] itemIds) {
+            bitmap = null;
+            int[] oldDocs = docs;
+            int[] oldFrequencies = frequencies;
+            int oldSize = size;
+            docs = new int[Math.max(4, oldSize)];
+            frequencies = new int[docs.length];
+            blockMaxFrequencies = new int[1];
+            blockMinLengths = new int[1];
+            blockMinItemIds = new long[1];
+            maxFrequency = 0;
+            minLength = Integer.MAX_VALUE;
+            size = 0;
+            for (int i = 0; i < oldSize; i++) {
+                int doc = remap[oldDocs[i]];
+                if (doc >= 0) {
+                    add(doc, oldFrequencies[i], lengths[doc], itemIds[doc]);
+                }
+            }
+            return size;
+        }
+    }
+
+    private static class TopHits {
+        final int capacity;
+        final double afterScore;
+        final long afterId;
+        final double[] scores;
+        final long[] ids;
+        int size;
+
+        TopHits(int capacity, double afterScore, long afterId) {
+            this.capacity = capacity;
+            this.afterScore = afterScore;
+            this.afterId = afterId;
+            this.scores = new double[capacity];
+            this.ids = new long[capacity];
+        }
+
+        boolean cannotAccept(double bound, long minId) {
+            return size == capacity && !before(bound, minId, scores[0], ids[0]);
+        }
+
+        void offer(double score, long id) {
+            if (!before(afterScore, afterId, score, id)) {
+                return;
+            }
+            if (size < capacity) {
+                scores[size] = score;
+                ids[size] = id;
+                siftUp(size++);
+            } else if (before(score, id, scores[0], ids[0])) {
+                scores[0] = score;
+                ids[0] = id;
+                siftDown(0);
+            }
+        }
+
+        List<ItemSearchHit> sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (left, right) -> before(scores[left], ids[left], scores[right], ids[right]) ? -1 : 1);
+            List<ItemSearchHit> hits = new ArrayList<>(size);
+            for (int i : order) {
+                hits.add(new ItemSearchHit(ids[i], scores[i]));
+            }
+            return hits;
+        }
+
+        private static boolean before(double score, long id, double otherScore, long otherId) {
+            return score > otherScore || (score == otherScore && id < otherId);
+        }
+
+        private void siftUp(int child) {
+            while (child > 0) {
+                int parent = (child - 1) / 2;
+                if (!before(scores[parent], ids[parent], scores[child], ids[child])) {
+                    return;
+                }
+                swap(parent, child);
+                child = parent;
+            }
+        }
+
+        private void siftDown(int parent) {
+            while (true) {
+                int worst = parent;
+                for (int child = 2 * parent + 1; child <= 2 * parent + 2 && child < size; child++) {
+                    if (before(scores[worst], ids[worst], scores[child], ids[child])) {
+                        worst = child;
+                    }
+                }
+                if (worst == parent) {
+                    return;
+                }
+                swap(parent, worst);
+                parent = worst;
+            }
+        }
+
+        private void swap(int left, int right) {
+            double score = scores[left];
+            scores[left] = scores[right];
+            scores[right] = score;
+            long id = ids[left];
+            ids[left] = ids[right];
+            ids[right] = id;
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package ru.practicum.shareit.server.item.search;
+
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ItemSuggestIndex {
+    private static final int TRIGRAM = 3;
+    private static final int NODE_BYTES = Character.BYTES + 3 * Integer.BYTES;
+    private static final int WORD_BYTES = 100;
+    private static final int ITEM_BYTES = 140;
+    private static final int NONE = -1;
+    private static final int MAX_SCANNED_ITEMS = 2_000;
+
+    private final long memoryLimit;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> items = new HashMap<>();
+    private final Map<String, IntList> trigrams = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<LongList> wordItems = new ArrayList<>();
+    private final IntList freeWords = new IntList();
+    private final IntList freeNodes = new IntList();
+    private char[] labels = new char[1024];
+    private int[] firstChildren = new int[1024];
+    private int[] nextSiblings = new int[1024];
+    private int[] wordsAt = new int[1024];
+    private int nodes;
+    private long usedBytes;
+
+    public ItemSuggestIndex(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+        nodes = 1;
+        firstChildren[0] = NONE;
+        nextSiblings[0] = NONE;
+        wordsAt[0] = NONE;
+    }
+
+    public boolean put(Long itemId, String name, boolean available) {
+        String[] tokens = ItemSearchIndex.tokenize(name).stream().distinct().toArray(String[]::new);
+        lock.writeLock().lock();
+        try {
+            Entry previous = items.get(itemId);
+            List<String> previousTokens = previous == null ? List.of() : Arrays.asList(previous.tokens);
+            List<String> newTokens = Arrays.asList(tokens);
+            long itemBytes = ITEM_BYTES + (long) Character.BYTES * name.length()
+                    + (long) (Integer.BYTES + Long.BYTES) * tokens.length;
+            long addedBytes = itemBytes;
+            for (String token : tokens) {
+                if (wordId(token) == NONE) {
+                    addedBytes += wordBytes(token);
+                }
+            }
+            long releasedBytes = 0;
+            if (previous != null) {
+                releasedBytes += previous.bytes;
+                for (String token : previous.tokens) {
+                    if (!newTokens.contains(token) && wordItems.get(wordId(token)).size == 1) {
+                        releasedBytes += wordBytes(token);
+                    }
+                }
+            }
+            if (usedBytes - releasedBytes + addedBytes > memoryLimit) {
+                return false;
+            }
+            for (int i = 0; i < tokens.length; i++) {
+                int word = previousTokens.contains(tokens[i]) ? wordId(tokens[i]) : insert(tokens[i]);
+                if (!previousTokens.contains(tokens[i])) {
+                    wordItems.get(word).add(itemId);
+                }
+                tokens[i] = words.get(word);
+            }
+            if (previous != null) {
+                for (String token : previous.tokens) {
+                    if (!newTokens.contains(token)) {
+                        release(itemId, token);
+                    }
+                }
+                usedBytes -= previous.bytes;
+            }
+            items.put(itemId, new Entry(name, tokens, available, itemBytes));
+            usedBytes += itemBytes;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = items.remove(itemId);
+            if (entry == null) {
+                return;
+            }
+            for (String token : entry.tokens) {
+                release(itemId, token);
+            }
+            usedBytes -= entry.bytes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        List<String> tokens = ItemSearchIndex.tokenize(prefix);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<String> complete = tokens.subList(0, tokens.size() - 1);
+        String last = tokens.get(tokens.size() - 1);
+        Map<Long, ItemSuggestionDto> suggestions = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            if (complete.isEmpty()) {
+                collectPrefix(node(last), suggestions, limit);
+            } else {
+                collectWithWords(complete, last, suggestions, limit);
+            }
+            if (suggestions.size() < limit && last.length() >= TRIGRAM) {
+                collectFuzzy(complete, last, suggestions, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+
+    private void collectPrefix(int node, Map<Long, ItemSuggestionDto> suggestions, int limit) {
+        if (node == NONE) {
+            return;
+        }
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = node;
+        while (top > 0 && suggestions.size() < limit) {
+            int current = stack[--top];
+            if (wordsAt[current] != NONE) {
+                addItems(wordsAt[current], List.of(), suggestions, limit);
+            }
+            int childCount = 0;
+            for (int child = firstChildren[current]; child != NONE; child = nextSiblings[child]) {
+                childCount++;
+            }
+            if (top + childCount > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + childCount));
+            }
+            int position = top + childCount;
+            for (int child = firstChildren[current]; child != NONE; child = nextSiblings[child]) {
+                stack[--position] = child;
+            }
+            top += childCount;
+        }
+    }
+
+    private void collectWithWords(List<String> complete, String last, Map<Long, ItemSuggestionDto> suggestions,
+                                  int limit) {
+        LongList rarest = rarest(complete);
+        if (rarest == null) {
+            return;
+        }
+        int scanned = Math.min(rarest.size, MAX_SCANNED_ITEMS);
+        for (int i = 0; i < scanned && suggestions.size() < limit; i++) {
+            Entry entry = items.get(rarest.values[i]);
+            if (entry.available && entry.containsAll(complete) && entry.hasPrefix(last)) {
+                suggestions.putIfAbsent(rarest.values[i], suggestion(rarest.values[i], entry));
+            }
+        }
+    }
+
+    private void collectFuzzy(List<String> complete, String last, Map<Long, ItemSuggestionDto> suggestions,
+                              int limit) {
+        int maxEdits = last.length() <= 5 ? 1 : 2;
+        if (!complete.isEmpty()) {
+            collectFuzzyWithWords(complete, last, maxEdits, suggestions, limit);
+            return;
+        }
+        Set<Integer> candidates = new HashSet<>();
+        for (int i = 0; i + TRIGRAM <= last.length(); i++) {
+            IntList list = trigrams.get(last.substring(i, i + TRIGRAM));
+            if (list != null) {
+                for (int j = 0; j < list.size; j++) {
+                    candidates.add(list.values[j]);
+                }
+            }
+        }
+        List<int[]> matches = new ArrayList<>();
+        for (Integer word : candidates) {
+            int distance = prefixDistance(last, words.get(word), maxEdits);
+            if (distance > 0 && distance <= maxEdits) {
+                matches.add(new int[]{word, distance});
+            }
+        }
+        matches.sort(Comparator.<int[]>comparingInt(match -> match[1])
+                .thenComparing(match -> words.get(match[0])));
+        for (int[] match : matches) {
+            if (suggestions.size() >= limit) {
+                return;
+            }
+            addItems(match[0], complete, suggestions, limit);
+        }
+    }
+
+    private void collectFuzzyWithWords(List<String> complete, String last, int maxEdits,
+                                       Map<Long, ItemSuggestionDto> suggestions, int limit) {
+        LongList rarest = rarest(complete);
+        if (rarest == null) {
+            return;
+        }
+        List<long[]> matches = new ArrayList<>();
+        Map<String, Integer> distances = new HashMap<>();
+        int scanned = Math.min(rarest.size, MAX_SCANNED_ITEMS);
+        for (int i = 0; i < scanned; i++) {
+            Entry entry = items.get(rarest.values[i]);
+            if (!entry.available || suggestions.containsKey(rarest.values[i]) || !entry.containsAll(complete)) {
+                continue;
+            }
+            int distance = Integer.MAX_VALUE;
+            for (String token : entry.tokens) {
+                distance = Math.min(distance,
+                        distances.computeIfAbsent(token, word -> prefixDistance(last, word, maxEdits)));
+            }
+            if (distance <= maxEdits) {
+                matches.add(new long[]{rarest.values[i], distance});
+            }
+        }
+        matches.sort(Comparator.comparingLong(match -> match[1]));
+        for (int i = 0; i < matches.size() && suggestions.size() < limit; i++) {
+            long itemId = matches.get(i)[0];
+            suggestions.put(itemId, suggestion(itemId, items.get(itemId)));
+        }
+    }
+
+    private LongList rarest(List<String> words) {
+        LongList rarest = null;
+        for (String token : words) {
+            int word = wordId(token);
+            if (word == NONE) {
+                return null;
+            }
+            LongList list = wordItems.get(word);
+            if (rarest == null || list.size < rarest.size) {
+                rarest = list;
+            }
+        }
+        return rarest;
+    }
+
+    private void addItems(int word, List<String> complete, Map<Long, ItemSuggestionDto> suggestions, int limit) {
+        LongList list = wordItems.get(word);
+        for (int i = 0; i < list.size && suggestions.size() < limit; i++) {
+            Entry entry = items.get(list.values[i]);
+            if (entry.available && entry.containsAll(complete)) {
+                suggestions.putIfAbsent(list.values[i], suggestion(list.values[i], entry));
+            }
+        }
+    }
+
+    private static ItemSuggestionDto suggestion(long itemId, Entry entry) {
+        return ItemSuggestionDto.builder().id(itemId).name(entry.name).build();
+    }
+
+    static int prefixDistance(String prefix, String word, int maxEdits) {
+        if (word.length() < prefix.length() - maxEdits) {
+            return Integer.MAX_VALUE;
+        }
+        int[] previous = new int[word.length() + 1];
+        int[] current = new int[word.length() + 1];
+        for (int j = 0; j <= word.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= prefix.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= word.length(); j++) {
+                int cost = prefix.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return Integer.MAX_VALUE;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int distance = Integer.MAX_VALUE;
+        for (int value : previous) {
+            distance = Math.min(distance, value);
+        }
+        return distance;
+    }
+
+    private int wordId(String word) {
+        int node = node(word);
+        return node == NONE ? NONE : wordsAt[node];
+    }
+
+    private int node(String prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node != NONE; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char label) {
+        for (int child = firstChildren[node]; child != NONE && labels[child] <= label; child = nextSiblings[child]) {
+            if (labels[child] == label) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int insert(String word) {
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char label = word.charAt(i);
+            int next = child(node, label);
+            if (next == NONE) {
+                next = newNode(label);
+                int previous = NONE;
+                int sibling = firstChildren[node];
+                while (sibling != NONE && labels[sibling] < label) {
+                    previous = sibling;
+                    sibling = nextSiblings[sibling];
+                }
+                nextSiblings[next] = sibling;
+                if (previous == NONE) {
+                    firstChildren[node] = next;
+                } else {
+                    nextSiblings[previous] = next;
+                }
+            }
+            node = next;
+        }
+        if (wordsAt[node] == NONE) {
+            if (freeWords.size > 0) {
+                wordsAt[node] = freeWords.removeLast();
+                words.set(wordsAt[node], word);
+                wordItems.set(wordsAt[node], new LongList());
+            } else {
+                wordsAt[node] = words.size();
+                words.add(word);
+                wordItems.add(new LongList());
+            }
+            for (int i = 0; i + TRIGRAM <= word.length(); i++) {
+                trigrams.computeIfAbsent(word.substring(i, i + TRIGRAM), t -> new IntList()).add(wordsAt[node]);
+            }
+            usedBytes += wordBytes(word);
+        }
+        return wordsAt[node];
+    }
+
+    private void release(long itemId, String token) {
+        int word = wordId(token);
+        LongList list = wordItems.get(word);
+        list.remove(itemId);
+        if (list.size > 0) {
+            return;
+        }
+        for (int i = 0; i + TRIGRAM <= token.length(); i++) {
+            String trigram = token.substring(i, i + TRIGRAM);
+            IntList candidates = trigrams.get(trigram);
+            candidates.remove(word);
+            if (candidates.size == 0) {
+                trigrams.remove(trigram);
+            }
+        }
+        int[] path = new int[token.length() + 1];
+        for (int i = 0; i < token.length(); i++) {
+            path[i + 1] = child(path[i], token.charAt(i));
+        }
+        wordsAt[path[token.length()]] = NONE;
+        for (int i = token.length(); i > 0 && wordsAt[path[i]] == NONE && firstChildren[path[i]] == NONE; i--) {
+            unlink(path[i - 1], path[i]);
+            freeNodes.add(path[i]);
+        }
+        words.set(word, null);
+        wordItems.set(word, null);
+        freeWords.add(word);
+        usedBytes -= wordBytes(token);
+    }
+
+    private void unlink(int parent, int node) {
+        if (firstChildren[parent] == node) {
+            firstChildren[parent] = nextSiblings[node];
+            return;
+        }
+        int sibling = firstChildren[parent];
+        while (nextSiblings[sibling] != node) {
+            sibling = nextSiblings[sibling];
+        }
+        nextSiblings[sibling] = nextSiblings[node];
+    }
+
+    private static long wordBytes(String word) {
+        return WORD_BYTES + (long) (NODE_BYTES + Character.BYTES) * word.length()
+                + (long) Integer.BYTES * Math.max(0, word.length() - TRIGRAM + 1);
+    }
+
+    private int newNode(char label) {
+        if (freeNodes.size > 0) {
+            int node = freeNodes.removeLast();
+            labels[node] = label;
+            firstChildren[node] = NONE;
+            nextSiblings[node] = NONE;
+            wordsAt[node] = NONE;
+            return node;
+        }
+        if (nodes == labels.length) {
+            labels = Arrays.copyOf(labels, nodes * 2);
+            firstChildren = Arrays.copyOf(firstChildren, nodes * 2);
+            nextSiblings = Arrays.copyOf(nextSiblings, nodes * 2);
+            wordsAt = Arrays.copyOf(wordsAt, nodes * 2);
+        }
+        labels[nodes] = label;
+        firstChildren[nodes] = NONE;
+        nextSiblings[nodes] = NONE;
+        wordsAt[nodes] = NONE;
+        return nodes++;
+    }
+
+    private static class Entry {
+        final String name;
+        final String[] tokens;
+        final boolean available;
+        final long bytes;
+
+        Entry(String name, String[] tokens, boolean available, long bytes) {
+            this.name = name;
+            this.tokens = tokens;
+            this.available = available;
+            this.bytes = bytes;
+        }
+
+        boolean containsAll(List<String> words) {
+            for (String word : words) {
+                if (!Arrays.asList(tokens).contains(word)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean hasPrefix(String prefix) {
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class LongList {
+        long[] values = new long[2];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void remove(long value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.transaction.AfterCommit;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemSuggester {
+    JdbcTemplate jdbcTemplate;
+    ItemSuggestIndex index;
+
+    public ItemSuggester(JdbcTemplate jdbcTemplate, @Value("${shareit.suggest.memory-limit}") DataSize memoryLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = new ItemSuggestIndex(memoryLimit.toBytes());
+    }
+
+    @PostConstruct
+    void build() {
+        int[] skipped = {0};
+        jdbcTemplate.query("select id, name, is_available from items order by id", rs -> {
+            if (!index.put(rs.getLong("id"), rs.getString("name"), rs.getBoolean("is_available"))) {
+                skipped[0]++;
+            }
+        });
+        log.info("Индекс подсказок построен, вещей: " + index.size() + ", занято байт: " + index.usedBytes());
+        if (skipped[0] > 0) {
+            log.warn("Не хватило памяти для подсказок по " + skipped[0]
+                    + " вещам, увеличьте shareit.suggest.memory-limit");
+        }
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit);
+    }
+
+    public void index(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        AfterCommit.run(() -> {
+            if (!index.put(id, name, available)) {
+                log.warn("Не хватило памяти для подсказок по вещи с айди " + id);
+            }
+        });
+    }
+
+    public void remove(Long itemId) {
+        AfterCommit.run(() -> index.remove(itemId));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaItemSearchEngine implements ItemSearchEngine {
+    ItemRepository itemRepository;
+
+    @Override
+    public List<ItemSearchHit> search(String text, Pageable pageable) {
+        return toHits(itemRepository.search(text, pageable));
+    }
+
+    @Override
+    public List<ItemSearchHit> searchAfter(String text, Cursor after, Integer size) {
+        return toHits(itemRepository.searchAfter(text, after.getId(), OffsetPageRequest.of(0, size)));
+    }
+
+    private List<ItemSearchHit> toHits(List<Long> ids) {
+        return ids.stream()
+                .map(id -> new ItemSearchHit(id, null))
+                .collect(Collectors.toList());
+    }
+}
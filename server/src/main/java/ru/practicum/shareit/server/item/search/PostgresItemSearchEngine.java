@@ -0,0 +1,73 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.exception.InvalidException;
+import ru.practicum.shareit.server.pagination.Cursor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private static final String RANKED_ITEMS = "select id, ts_rank(search_vector, query)::float8 as score " +
+            "from items, to_tsquery('russian', :query) query " +
+            "where search_vector @@ query and is_available";
+    private static final String SEARCH = RANKED_ITEMS + " " +
+            "order by score desc, id limit :limit offset :offset";
+    private static final String SEARCH_AFTER = "select id, score from (" + RANKED_ITEMS + ") ranked " +
+            "where score < :score or (score = :score and id > :id) " +
+            "order by score desc, id limit :limit";
+    private static final RowMapper<ItemSearchHit> HIT_MAPPER =
+            (rs, rowNum) -> new ItemSearchHit(rs.getLong("id"), rs.getDouble("score"));
+
+    NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ItemSearchHit> search(String text, Pageable pageable) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query(SEARCH, new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset()), HIT_MAPPER);
+    }
+
+    @Override
+    public List<ItemSearchHit> searchAfter(String text, Cursor after, Integer size) {
+        if (after.getScore() == null) {
+            throw new InvalidException("Некорректный курсор поиска");
+        }
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query(SEARCH_AFTER, new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("score", after.getScore())
+                .addValue("id", after.getId())
+                .addValue("limit", size), HIT_MAPPER);
+    }
+
+    private static String toTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
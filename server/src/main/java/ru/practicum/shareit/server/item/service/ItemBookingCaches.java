@@ -0,0 +1,58 @@
+package ru.practicum.shareit.server.item.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemAvailabilityIndex;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.search.ItemSuggester;
+import ru.practicum.shareit.server.transaction.AfterCommit;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemBookingCaches {
+    BookingIntervalIndex intervalIndex;
+    ItemAvailabilityIndex availabilityIndex;
+    ItemBookingTimelines timelines;
+    ItemSearchEngine searchEngine;
+    ItemSuggester suggester;
+    EntityManagerFactory entityManagerFactory;
+
+    public void itemsDeleted(Collection<Long> itemIds) {
+        invalidate(itemIds);
+        itemIds.forEach(searchEngine::remove);
+        itemIds.forEach(suggester::remove);
+        AfterCommit.run(() -> itemIds.forEach(itemId -> entityManagerFactory.getCache().evict(Item.class, itemId)));
+    }
+
+    public void bookingsDeleted(Collection<Long> itemIds) {
+        invalidate(itemIds);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.cache-reload}",
+            initialDelayString = "${shareit.booking.cache-reload}")
+    public void reload() {
+        intervalIndex.invalidateAll();
+        timelines.invalidateAll();
+        availabilityIndex.build();
+        log.info("Кэши бронирований вещей перечитаны из базы");
+    }
+
+    private void invalidate(Collection<Long> itemIds) {
+        for (Long itemId : itemIds) {
+            intervalIndex.invalidate(itemId);
+            availabilityIndex.release(itemId);
+            timelines.invalidate(itemId);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.server.item.service;
+
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.mapper.BookingMapper;
+import ru.practicum.shareit.server.booking.model.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public final class ItemBookingTimeline {
+    private final NavigableMap<LocalDateTime, BookingView> byStart = new TreeMap<>();
+
+    public ItemBookingTimeline(Collection<BookingView> bookings) {
+        bookings.forEach(booking -> byStart.put(booking.getStart(), booking));
+    }
+
+    public BookingDto lastStarted(LocalDateTime now) {
+        return toBookingDto(byStart.lowerEntry(now));
+    }
+
+    public BookingDto lastEnded(LocalDateTime now) {
+        Map.Entry<LocalDateTime, BookingView> entry = byStart.lowerEntry(now);
+        while (entry != null && !entry.getValue().getEnd().isBefore(now)) {
+            entry = byStart.lowerEntry(entry.getKey());
+        }
+        return toBookingDto(entry);
+    }
+
+    public BookingDto next(LocalDateTime now) {
+        return toBookingDto(byStart.higherEntry(now));
+    }
+
+    private static BookingDto toBookingDto(Map.Entry<LocalDateTime, BookingView> entry) {
+        return entry == null ? null : BookingMapper.toBookingDto(entry.getValue());
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.server.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.booking.model.BookingView;
+import ru.practicum.shareit.server.booking.repo.BookingRepository;
+import ru.practicum.shareit.server.datasource.PrimaryReads;
+import ru.practicum.shareit.server.transaction.AfterCommit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.server.booking.model.Status.APPROVED;
+
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemBookingTimelines {
+    BookingRepository bookingRepository;
+    PrimaryReads primaryReads;
+    int maxItems;
+    Counter hits;
+    Counter misses;
+    Counter evictions;
+    AtomicLong invalidations = new AtomicLong();
+    Map<Long, ItemBookingTimeline> timelines;
+
+    public ItemBookingTimelines(BookingRepository bookingRepository, PrimaryReads primaryReads,
+                                MeterRegistry registry, @Value("${shareit.booking.timeline.max-items}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.primaryReads = primaryReads;
+        this.maxItems = maxItems;
+        this.hits = registry.counter("shareit.booking.timeline.hits");
+        this.misses = registry.counter("shareit.booking.timeline.misses");
+        this.evictions = registry.counter("shareit.booking.timeline.evictions");
+        this.timelines = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemBookingTimeline> eldest) {
+                if (size() <= maxItems) {
+                    return false;
+                }
+                evictions.increment();
+                return true;
+            }
+        };
+        Gauge.builder("shareit.booking.timeline.size", this, ItemBookingTimelines::size).register(registry);
+        Gauge.builder("shareit.booking.timeline.hit.ratio", this, ItemBookingTimelines::hitRatio).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return maxItems > 0;
+    }
+
+    public ItemBookingTimeline get(Long itemId) {
+        return getAll(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, ItemBookingTimeline> getAll(Collection<Long> itemIds) {
+        Map<Long, ItemBookingTimeline> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (timelines) {
+            for (Long itemId : itemIds) {
+                ItemBookingTimeline timeline = timelines.get(itemId);
+                if (timeline != null) {
+                    result.put(itemId, timeline);
+                } else {
+                    missing.add(itemId);
+                }
+            }
+        }
+        hits.increment(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+        long version = invalidations.get();
+        Map<Long, List<BookingView>> loaded = primaryReads.read(
+                        () -> bookingRepository.findBookingViewsByItemIdInAndStatus(missing, APPROVED))
+                .stream()
+                .collect(Collectors.groupingBy(BookingView::getItemId));
+        synchronized (timelines) {
+            boolean current = invalidations.get() == version;
+            for (Long itemId : missing) {
+                ItemBookingTimeline timeline = new ItemBookingTimeline(loaded.getOrDefault(itemId, List.of()));
+                result.put(itemId, timeline);
+                if (current) {
+                    timelines.put(itemId, timeline);
+                }
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(Long itemId) {
+        evict(itemId);
+        AfterCommit.run(() -> evict(itemId));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        synchronized (timelines) {
+            timelines.clear();
+        }
+    }
+
+    private void evict(Long itemId) {
+        invalidations.incrementAndGet();
+        synchronized (timelines) {
+            timelines.remove(itemId);
+        }
+    }
+
+    private double size() {
+        synchronized (timelines) {
+            return timelines.size();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.server.item.service;
 
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.pagination.CursorPage;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -15,7 +20,20 @@ public interface ItemService {
 
     CommentDto commentItem(Long itemId, CommentDto comment, Long authorId);
 
+    CursorPage<CommentDto> getCommentPage(Long itemId, String after, Integer limit);
+
     List<ItemDtoOwner> viewAllItems(Long userId, Integer from, Integer size);
 
     List<ItemDto> searchItems(String text, Integer from, Integer size);
+
+    CursorPage<ItemDtoOwner> viewItemPage(Long userId, Integer from, Integer size, String after);
+
+    CursorPage<ItemDto> searchItemPage(String text, Integer from, Integer size, String after);
+
+    CursorPage<ItemDto> searchItemPage(String text, Integer from, Integer size, String after,
+                                       LocalDate availableFrom, LocalDate availableTo);
+
+    List<ItemSuggestionDto> suggestItems(String prefix, Integer size);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to, Boolean includeWaiting);
 }
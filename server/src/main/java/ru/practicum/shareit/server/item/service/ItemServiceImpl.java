@@ -3,67 +3,99 @@ package ru.practicum.shareit.server.item.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.booking.repo.BookingRepository;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingView;
+import ru.practicum.shareit.server.booking.model.Status;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
 import ru.practicum.shareit.server.exception.InvalidException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.dto.TimeSlotDto;
 import ru.practicum.shareit.server.item.mapper.CommentMapper;
 import ru.practicum.shareit.server.item.mapper.ItemMapper;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.model.ItemView;
 import ru.practicum.shareit.server.item.validator.ItemValidator;
 import ru.practicum.shareit.server.item.repo.CommentRepository;
 import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemAvailabilityIndex;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.search.ItemSearchHit;
+import ru.practicum.shareit.server.item.search.ItemSuggester;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.request.repo.RequestRepository;
 import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repo.UserRepository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.server.booking.model.Status.APPROVED;
+import static ru.practicum.shareit.server.booking.model.Status.WAITING;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ItemServiceImpl implements ItemService {
+    private static final int AVAILABLE_SEARCH_BATCH_FACTOR = 4;
+    private static final int AVAILABLE_SEARCH_MIN_BATCH = 100;
+    private static final int COMMENT_PREVIEW_SIZE = 10;
+
     final ItemRepository itemRepository;
     final UserRepository userRepository;
     final BookingRepository bookingRepository;
     final CommentRepository commentRepository;
     final RequestRepository requestRepository;
     final ItemValidator validator;
+    final ItemSearchEngine searchEngine;
+    final ItemSuggester suggester;
+    final ItemAvailabilityIndex availabilityIndex;
+    final ItemBookingTimelines timelines;
 
     @Transactional
     @Override
     public ItemDto createItem(ItemDto itemDto, Long userId) {
         validator.validate(itemDto, userId);
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
+        User user = userRepository.getReferenceById(userId);
         Item item = ItemMapper.toItem(itemDto, user, null);
         if (itemDto.getRequestId() != null) {
             ItemRequest itemRequest = requestRepository.findById(itemDto.getRequestId()).orElseThrow(() ->
                     new DataNotFoundException("Запрос с айди " + itemDto.getRequestId() + " не найден"));
             item.setRequest(itemRequest);
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchEngine.index(saved);
+        suggester.index(saved);
+        return ItemMapper.toItemDto(saved);
     }
 
     @Transactional
     @Override
     public ItemDto updateItem(Long itemId, ItemDto itemDto, Long userId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+        Item item = itemRepository.findWithOwnerById(itemId).orElseThrow(() ->
                 new DataNotFoundException("Вещь с айди " + itemId + " не найдена"));
         if (!item.getOwner().getId().equals(userId)) {
             throw new DataNotFoundException("Пользователь с айди " + userId + "не является владельцем вещи");
@@ -77,7 +109,10 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchEngine.index(saved);
+        suggester.index(saved);
+        return ItemMapper.toItemDto(saved);
     }
 
     @Transactional(readOnly = true)
@@ -86,23 +121,30 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new DataNotFoundException("Вещь с айди " + itemId + " не найдена"));
         ItemDtoOwner itemDtoOwner = ItemMapper.toItemDtoOwner(item);
-        List<CommentDto> comments = commentRepository.findCommentByItemId(itemId)
+        itemDtoOwner.setCommentCount(itemRepository.findCommentCountById(itemId));
+        List<CommentDto> comments = commentRepository.findByItemIdOrderByIdDesc(itemId,
+                        OffsetPageRequest.of(0, COMMENT_PREVIEW_SIZE))
                 .stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
         itemDtoOwner.setComments(comments);
         if (item.getOwner().getId().equals(userId)) {
-            Booking last = bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusIsOrderByStartDesc(
-                    itemId, LocalDateTime.now(), APPROVED
-            );
-            Booking next = bookingRepository.findTopByItemIdAndStartIsAfterAndStatusIsOrderByStartAsc(
-                    itemId, LocalDateTime.now(), APPROVED
-            );
-            if (last != null) {
-                itemDtoOwner.setLastBooking(BookingMapper.toBookingDto(last));
-            }
-            if (next != null) {
-                itemDtoOwner.setNextBooking(BookingMapper.toBookingDto(next));
+            LocalDateTime now = LocalDateTime.now();
+            if (timelines.isEnabled()) {
+                ItemBookingTimeline timeline = timelines.get(itemId);
+                itemDtoOwner.setLastBooking(timeline.lastStarted(now));
+                itemDtoOwner.setNextBooking(timeline.next(now));
+            } else {
+                Booking last = bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusIsOrderByStartDesc(
+                        itemId, now, APPROVED);
+                Booking next = bookingRepository.findTopByItemIdAndStartIsAfterAndStatusIsOrderByStartAsc(
+                        itemId, now, APPROVED);
+                if (last != null) {
+                    itemDtoOwner.setLastBooking(BookingMapper.toBookingDto(last));
+                }
+                if (next != null) {
+                    itemDtoOwner.setNextBooking(BookingMapper.toBookingDto(next));
+                }
             }
         }
         return itemDtoOwner;
@@ -117,68 +159,209 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new DataNotFoundException("Вещь с айди " + itemId + " не найдена"));
-        User user = userRepository.findById(authorId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + authorId + " не найден"));
-        Comment comment = CommentMapper.toComment(commentDto, user, item);
-
-        List<Booking> bookings = bookingRepository.findBookingsByBookerIdAndItemId(user.getId(), item.getId())
-                .stream()
-                .filter(b -> b.getEnd().isBefore(LocalDateTime.now()) && b.getStatus().equals(APPROVED))
-                .collect(Collectors.toList());
-
-        if (bookings.isEmpty()) {
+        User user = userRepository.getReferenceById(authorId);
+        if (!bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(authorId, item.getId(), APPROVED,
+                LocalDateTime.now())) {
             throw new InvalidException(
-                    "Пользователь с айди " + user.getId() + " не бронировал вещь с айди " + item.getId()
+                    "Пользователь с айди " + authorId + " не бронировал вещь с айди " + item.getId()
             );
         }
-        List<Comment> comments = commentRepository.findCommentByItemId(itemId)
-                .stream()
-                .filter(c -> c.getAuthor().getId().equals(user.getId()))
-                .collect(Collectors.toList());
-        if (!comments.isEmpty()) {
+        if (commentRepository.existsByItemIdAndAuthorId(item.getId(), authorId)) {
+            throw new InvalidException("Пользователь уже коментировал эту вещь");
+        }
+        Comment comment;
+        try {
+            comment = commentRepository.saveAndFlush(CommentMapper.toComment(commentDto, user, item));
+        } catch (DataIntegrityViolationException e) {
             throw new InvalidException("Пользователь уже коментировал эту вещь");
         }
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        itemRepository.incrementCommentCount(item.getId());
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<CommentDto> getCommentPage(Long itemId, String after, Integer limit) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new DataNotFoundException("Вещь с айди " + itemId + " не найдена");
+        }
+        List<Comment> comments = after == null
+                ? commentRepository.findByItemIdOrderByIdDesc(itemId, OffsetPageRequest.of(0, limit))
+                : commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(
+                        itemId, Cursor.decode(after).getId(), OffsetPageRequest.of(0, limit));
+        return CursorPage.of(comments, limit, CommentMapper::toCommentDto, c -> Cursor.of(c.getId()));
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemDtoOwner> viewAllItems(Long userId, Integer from, Integer size) {
-        LocalDateTime ldt = LocalDateTime.now();
-        List<Booking> lastBookings =
-                bookingRepository.findBookingsByStatusAndEndIsBeforeOrderByStartDesc(APPROVED, ldt);
-        List<Booking> nextBookings =
-                bookingRepository.findBookingsByStatusAndStartIsAfterOrderByStartAsc(APPROVED, ldt);
-        List<ItemDtoOwner> items = new ArrayList<>();
-        for (Item i : itemRepository.findByOwnerIdOrderByIdAsc(userId, PageRequest.of(from / size, size))) {
-            List<Booking> lastBookingsByItem = lastBookings.stream()
-                    .filter(b -> b.getItem().getId().equals(i.getId()))
-                    .collect(Collectors.toList());
-            List<Booking> nextBookingsByItem = nextBookings.stream()
-                    .filter(b -> b.getItem().getId().equals(i.getId()))
-                    .collect(Collectors.toList());
-            ItemDtoOwner item = ItemMapper.toItemDtoOwner(i);
-            if (!lastBookingsByItem.isEmpty()) {
-                item.setLastBooking(BookingMapper.toBookingDto(lastBookingsByItem.get(0)));
-            }
-            if (!nextBookingsByItem.isEmpty()) {
-                item.setNextBooking(BookingMapper.toBookingDto(nextBookingsByItem.get(0)));
+        return viewItemPage(userId, from, size, null).getItems();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> searchItems(String text, Integer from, Integer size) {
+        return searchItemPage(text, from, size, null).getItems();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<ItemDtoOwner> viewItemPage(Long userId, Integer from, Integer size, String after) {
+        List<Item> items = after == null
+                ? itemRepository.findByOwnerIdOrderByIdAsc(userId, OffsetPageRequest.of(from, size))
+                : itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(
+                        userId, Cursor.decode(after).getId(), OffsetPageRequest.of(0, size));
+        Map<Long, BookingDto> lastBookings = new HashMap<>();
+        Map<Long, BookingDto> nextBookings = new HashMap<>();
+        if (!items.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+            if (timelines.isEnabled()) {
+                timelines.getAll(itemIds).forEach((id, timeline) -> {
+                    lastBookings.put(id, timeline.lastEnded(now));
+                    nextBookings.put(id, timeline.next(now));
+                });
+            } else {
+                for (BookingView booking : bookingRepository.findLastAndNextBookings(itemIds, now)) {
+                    Map<Long, BookingDto> target = booking.getStart().isAfter(now) ? nextBookings : lastBookings;
+                    target.put(booking.getItemId(), BookingMapper.toBookingDto(booking));
+                }
             }
-            items.add(item);
         }
-        return items;
+        return CursorPage.of(items, size, i -> {
+            ItemDtoOwner item = ItemMapper.toItemDtoOwner(i);
+            item.setLastBooking(lastBookings.get(i.getId()));
+            item.setNextBooking(nextBookings.get(i.getId()));
+            return item;
+        }, i -> Cursor.of(i.getId()));
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> searchItems(String text, Integer from, Integer size) {
+    public CursorPage<ItemDto> searchItemPage(String text, Integer from, Integer size, String after) {
+        return searchItemPage(text, from, size, after, null, null);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<ItemDto> searchItemPage(String text, Integer from, Integer size, String after,
+                                              LocalDate availableFrom, LocalDate availableTo) {
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new InvalidException("Для поиска свободных вещей нужно указать обе даты периода");
+        }
+        if (availableFrom != null && availableFrom.isAfter(availableTo)) {
+            throw new InvalidException("Начало периода должно быть не позже его окончания");
+        }
         if (text.isBlank()) {
-            return Collections.emptyList();
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        List<ItemSearchHit> hits;
+        if (availableFrom == null) {
+            hits = after == null
+                    ? searchEngine.search(text, OffsetPageRequest.of(from, size))
+                    : searchEngine.searchAfter(text, Cursor.decode(after), size);
         } else {
-            return itemRepository.search(text, PageRequest.of(from / size, size))
-                    .stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
+            hits = searchAvailable(text, after == null ? from : 0, size, after, availableFrom, availableTo);
+        }
+        Map<Long, ItemView> items = hits.isEmpty() ? Collections.emptyMap()
+                : itemRepository.findItemViewsByIdIn(hits.stream()
+                        .map(ItemSearchHit::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ItemView::getId, Function.identity()));
+        CursorPage<ItemDto> page = CursorPage.of(hits, size,
+                hit -> items.containsKey(hit.getId()) ? ItemMapper.toItemDto(items.get(hit.getId())) : null,
+                ItemSearchHit::toCursor);
+        return new CursorPage<>(page.getItems().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()), page.getNext());
+    }
+
+    private List<ItemSearchHit> searchAvailable(String text, int skip, int size, String after,
+                                                LocalDate availableFrom, LocalDate availableTo) {
+        int batch = Math.max(size * AVAILABLE_SEARCH_BATCH_FACTOR, AVAILABLE_SEARCH_MIN_BATCH);
+        List<ItemSearchHit> result = new ArrayList<>(size);
+        List<ItemSearchHit> hits = after == null
+                ? searchEngine.search(text, OffsetPageRequest.of(0, batch))
+                : searchEngine.searchAfter(text, Cursor.decode(after), batch);
+        while (true) {
+            for (ItemSearchHit hit : hits) {
+                if (!availabilityIndex.isFree(hit.getId(), availableFrom, availableTo)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                result.add(hit);
+                if (result.size() == size) {
+                    return result;
+                }
+            }
+            if (hits.size() < batch) {
+                return result;
+            }
+            hits = searchEngine.searchAfter(text, hits.get(hits.size() - 1).toCursor(), batch);
+        }
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggestItems(String prefix, Integer size) {
+        if (prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return suggester.suggest(prefix, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                   Boolean includeWaiting) {
+        if (!from.isBefore(to)) {
+            throw new InvalidException("Начало периода должно быть раньше его окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new DataNotFoundException("Вещь с айди " + itemId + " не найдена");
         }
+        Set<Status> statuses = includeWaiting ? EnumSet.of(APPROVED, WAITING) : EnumSet.of(APPROVED);
+        List<TimeSlotDto> busy = new ArrayList<>();
+        List<TimeSlotDto> free = new ArrayList<>();
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = from;
+        for (BookingView booking : bookingRepository.findBookingViewsInWindow(itemId, statuses, from, to)) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            if (busyStart != null && !start.isAfter(busyEnd)) {
+                if (end.isAfter(busyEnd)) {
+                    busyEnd = end;
+                }
+                continue;
+            }
+            if (busyStart != null) {
+                busy.add(slot(busyStart, busyEnd));
+            }
+            if (start.isAfter(busyEnd)) {
+                free.add(slot(busyEnd, start));
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (busyStart != null) {
+            busy.add(slot(busyStart, busyEnd));
+        }
+        if (busyEnd.isBefore(to)) {
+            free.add(slot(busyEnd, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    private TimeSlotDto slot(LocalDateTime start, LocalDateTime end) {
+        return TimeSlotDto.builder().start(start).end(end).build();
     }
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.server.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.server.exception.InvalidException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Cursor {
+    static final String SEPARATOR = "_";
+    static final String SCORE_PREFIX = "s";
+
+    LocalDateTime key;
+    Double score;
+    Long id;
+
+    public static Cursor of(LocalDateTime key, Long id) {
+        return new Cursor(key, null, id);
+    }
+
+    public static Cursor of(Double score, Long id) {
+        return new Cursor(null, score, id);
+    }
+
+    public static Cursor of(Long id) {
+        return new Cursor(null, null, id);
+    }
+
+    public String encode() {
+        String prefix = "";
+        if (key != null) {
+            prefix = key.toString();
+        } else if (score != null) {
+            prefix = SCORE_PREFIX + score;
+        }
+        String value = prefix + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            String prefix = value.substring(0, separator);
+            Long id = Long.parseLong(value.substring(separator + 1));
+            if (prefix.isEmpty()) {
+                return of(id);
+            }
+            if (prefix.startsWith(SCORE_PREFIX)) {
+                return of(Double.parseDouble(prefix.substring(SCORE_PREFIX.length())), id);
+            }
+            return of(LocalDateTime.parse(prefix), id);
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new InvalidException("Некорректный курсор " + token);
+        }
+    }
+
+    public static Cursor decodeKeyed(String token) {
+        Cursor cursor = decode(token);
+        if (cursor.getKey() == null) {
+            throw new InvalidException("Некорректный курсор " + token);
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.server.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    List<T> items;
+    String next;
+
+    public static <E, T> CursorPage<T> of(List<E> rows, Integer size,
+                                          Function<E, T> mapper, Function<E, Cursor> cursor) {
+        String next = null;
+        if (!rows.isEmpty() && rows.size() >= size) {
+            next = cursor.apply(rows.get(rows.size() - 1)).encode();
+        }
+        return new CursorPage<>(rows.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next);
+        }
+        return response.body(items);
+    }
+}
@@ -2,12 +2,21 @@ package ru.practicum.shareit.server.request.repo;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorIdOrderByCreatedAsc(Long requestorId);
 
-    List<ItemRequest> findItemRequestsByRequestorIdNotOrderByCreatedAsc(Long userId, Pageable pageable);
+    List<ItemRequest> findItemRequestsByRequestorIdNotOrderByCreatedAscIdAsc(Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> :userId " +
+            "and (r.created > :key or (r.created = :key and r.id > :id)) " +
+            "order by r.created asc, r.id asc")
+    List<ItemRequest> findItemRequestsByRequestorIdNotAfter(Long userId, LocalDateTime key, Long id,
+                                                            Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.server.request.service;
 
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -12,4 +13,6 @@ public interface RequestService {
     List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size);
 
     ItemRequestDto getRequestById(Long userId, Long requestId);
+
+    CursorPage<ItemRequestDto> getRequestPage(Long userId, Integer from, Integer size, String after);
 }
@@ -3,15 +3,16 @@ package ru.practicum.shareit.server.request.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
 import ru.practicum.shareit.server.exception.InvalidException;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
 import ru.practicum.shareit.server.item.mapper.ItemMapper;
-import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.mapper.RequestMapper;
 import ru.practicum.shareit.server.request.model.ItemRequest;
@@ -21,6 +22,7 @@ import ru.practicum.shareit.server.user.repo.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,35 +48,40 @@ public class RequestServiceImpl implements RequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserRequests(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
-        List<Item> items = itemRepository.findAll();
-        List<ItemRequestDto> itemRequestDto = requestRepository.findAllByRequestorIdOrderByCreatedAsc(user.getId())
+        List<ItemRequestDto> itemRequestDto = requestRepository.findAllByRequestorIdOrderByCreatedAsc(userId)
                 .stream()
                 .map(RequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
-        return searchItemsForRequests(itemRequestDto, items);
+        return searchItemsForRequests(itemRequestDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
-        List<ItemRequestDto> requestDtos = requestRepository.findItemRequestsByRequestorIdNotOrderByCreatedAsc(
-                        user.getId(), PageRequest.of(from / size, size))
-                .stream()
-                .map(RequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAll();
-        return searchItemsForRequests(requestDtos, items);
+        return getRequestPage(userId, from, size, null).getItems();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ItemRequestDto> getRequestPage(Long userId, Integer from, Integer size, String after) {
+        List<ItemRequest> requests;
+        if (after == null) {
+            requests = requestRepository.findItemRequestsByRequestorIdNotOrderByCreatedAscIdAsc(
+                    userId, OffsetPageRequest.of(from, size));
+        } else {
+            Cursor cursor = Cursor.decodeKeyed(after);
+            requests = requestRepository.findItemRequestsByRequestorIdNotAfter(
+                    userId, cursor.getKey(), cursor.getId(), OffsetPageRequest.of(0, size));
+        }
+        CursorPage<ItemRequestDto> page = CursorPage.of(requests, size, RequestMapper::toItemRequestDto,
+                r -> Cursor.of(r.getCreated(), r.getId()));
+        searchItemsForRequests(page.getItems());
+        return page;
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new DataNotFoundException("Пользователь с айди " + userId + " не найден"));
         ItemRequest itemRequest = requestRepository.findById(requestId).orElseThrow(() ->
                 new DataNotFoundException("Запрос с айди " + requestId + " не найден"));
         ItemRequestDto itemRequestDto = RequestMapper.toItemRequestDto(itemRequest);
@@ -85,17 +92,19 @@ public class RequestServiceImpl implements RequestService {
         return itemRequestDto;
     }
 
-    private List<ItemRequestDto> searchItemsForRequests(List<ItemRequestDto> requestDtos, List<Item> items) {
+    private List<ItemRequestDto> searchItemsForRequests(List<ItemRequestDto> requestDtos) {
+        if (requestDtos.isEmpty()) {
+            return requestDtos;
+        }
+        List<Long> requestIds = requestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDtoOwner>> answers = itemRepository.findItemsByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemDtoOwner, Collectors.toList())));
         for (ItemRequestDto request : requestDtos) {
-            List<ItemDtoOwner> answers = new ArrayList<>();
-            for (Item item : items) {
-                if (item.getRequest() != null) {
-                    if (item.getRequest().getId().equals(request.getId())) {
-                        answers.add(ItemMapper.toItemDtoOwner(item));
-                    }
-                }
-                request.setItems(answers);
-            }
+            request.setItems(answers.getOrDefault(request.getId(), new ArrayList<>()));
         }
         return requestDtos;
     }
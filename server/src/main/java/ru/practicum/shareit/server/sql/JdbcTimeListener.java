@@ -0,0 +1,27 @@
+package ru.practicum.shareit.server.sql;
+
+import org.hibernate.BaseSessionEventListener;
+
+public class JdbcTimeListener extends BaseSessionEventListener {
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlScope.jdbcTime(System.nanoTime() - started);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlScope.jdbcTime(System.nanoTime() - started);
+    }
+}
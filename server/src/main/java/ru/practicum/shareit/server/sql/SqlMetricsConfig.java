@@ -0,0 +1,22 @@
+package ru.practicum.shareit.server.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SqlMetricsConfig implements WebMvcConfigurer {
+    ObjectProvider<MeterRegistry> registry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        registry.ifAvailable(meterRegistry -> interceptors.addInterceptor(new SqlMetricsInterceptor(meterRegistry)));
+    }
+}
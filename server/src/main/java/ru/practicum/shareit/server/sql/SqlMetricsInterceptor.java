@@ -0,0 +1,54 @@
+package ru.practicum.shareit.server.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SqlMetricsInterceptor implements HandlerInterceptor {
+    private static final String SCOPE_ATTRIBUTE = SqlMetricsInterceptor.class.getName() + ".scope";
+
+    MeterRegistry registry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(SCOPE_ATTRIBUTE, SqlScope.open());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlScope scope = (SqlScope) request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        HandlerMethod method = (HandlerMethod) handler;
+        String controller = method.getBeanType().getSimpleName();
+        String name = method.getMethod().getName();
+        DistributionSummary.builder("shareit.sql.statements")
+                .tag("controller", controller)
+                .tag("method", name)
+                .register(registry)
+                .record(scope.getStatements());
+        Timer.builder("shareit.sql.time")
+                .tag("controller", controller)
+                .tag("method", name)
+                .register(registry)
+                .record(scope.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+}
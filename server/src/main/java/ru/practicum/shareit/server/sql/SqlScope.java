@@ -0,0 +1,51 @@
+package ru.practicum.shareit.server.sql;
+
+public final class SqlScope implements AutoCloseable {
+    private static final ThreadLocal<SqlScope> CURRENT = new ThreadLocal<>();
+
+    private final SqlScope parent;
+    private int statements;
+    private long jdbcNanos;
+
+    private SqlScope(SqlScope parent) {
+        this.parent = parent;
+    }
+
+    public static SqlScope open() {
+        SqlScope scope = new SqlScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void statement() {
+        for (SqlScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+        }
+    }
+
+    static void jdbcTime(long nanos) {
+        for (SqlScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.jdbcNanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
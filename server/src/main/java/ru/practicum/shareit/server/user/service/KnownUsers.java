@@ -0,0 +1,56 @@
+package ru.practicum.shareit.server.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.exception.DataNotFoundException;
+import ru.practicum.shareit.server.transaction.AfterCommit;
+import ru.practicum.shareit.server.user.repo.UserRepository;
+
+import java.time.Duration;
+
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class KnownUsers {
+    UserRepository userRepository;
+    Cache<Long, Boolean> known;
+
+    public KnownUsers(UserRepository userRepository, MeterRegistry registry,
+                      @Value("${shareit.user.known-cache.max-size}") long maxSize,
+                      @Value("${shareit.user.known-cache.ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.known = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, known, "shareit.user.known");
+    }
+
+    public boolean exists(Long userId) {
+        if (known.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            AfterCommit.run(() -> known.put(userId, Boolean.TRUE));
+        }
+        return exists;
+    }
+
+    public void checkExists(Long userId) {
+        if (!exists(userId)) {
+            throw new DataNotFoundException("Пользователь с айди " + userId + " не найден");
+        }
+    }
+
+    public void evict(Long userId) {
+        known.invalidate(userId);
+        AfterCommit.run(() -> known.invalidate(userId));
+    }
+}
@@ -5,8 +5,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.repo.BookingRepository;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
 import ru.practicum.shareit.server.exception.InvalidException;
+import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.service.ItemBookingCaches;
 import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
@@ -15,6 +18,7 @@ import ru.practicum.shareit.server.user.repo.UserRepository;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +26,10 @@ import java.util.regex.Pattern;
 public class UserServiceImpl implements UserService {
     static final String EMAIL_PATTERN = "\\w+([\\.-]?\\w+)*@\\w+([\\.-]?\\w+)*\\.\\w{2,4}";
     final UserRepository userRepository;
+    final KnownUsers knownUsers;
+    final ItemRepository itemRepository;
+    final BookingRepository bookingRepository;
+    final ItemBookingCaches bookingCaches;
 
     @Transactional(readOnly = true)
     @Override
@@ -46,7 +54,9 @@ public class UserServiceImpl implements UserService {
     public UserDto createUser(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
         emailValidator(user.getEmail());
-        return UserMapper.toUserDto(userRepository.save(user));
+        User saved = userRepository.saveAndFlush(user);
+        knownUsers.evict(saved.getId());
+        return UserMapper.toUserDto(saved);
     }
 
     @Transactional
@@ -61,6 +71,7 @@ public class UserServiceImpl implements UserService {
             emailValidator(userDto.getEmail());
             user.setEmail(userDto.getEmail());
         }
+        knownUsers.evict(userId);
         return UserMapper.toUserDto(userRepository.save(user));
     }
 
@@ -68,7 +79,15 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long userId) {
         UserMapper.toUser(getUserById(userId));
+        List<Long> ownedItemIds = itemRepository.findIdsByOwnerId(userId);
+        List<Long> bookedItemIds = bookingRepository.findItemIdsByBookerId(userId).stream()
+                .filter(itemId -> !ownedItemIds.contains(itemId))
+                .collect(Collectors.toList());
         userRepository.deleteById(userId);
+        userRepository.flush();
+        knownUsers.evict(userId);
+        bookingCaches.itemsDeleted(ownedItemIds);
+        bookingCaches.bookingsDeleted(bookedItemIds);
     }
 
     private void emailValidator(String email) {
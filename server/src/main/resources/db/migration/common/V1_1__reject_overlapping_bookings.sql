@@ -0,0 +1,10 @@
+update bookings set status = 'REJECTED'
+where status in ('WAITING', 'APPROVED')
+  and exists (select 1 from bookings kept
+              where kept.item_id = bookings.item_id
+                and kept.id <> bookings.id
+                and kept.status in ('WAITING', 'APPROVED')
+                and kept.start_time < bookings.end_time
+                and bookings.start_time < kept.end_time
+                and (kept.status = 'APPROVED' and bookings.status = 'WAITING'
+                    or kept.status = bookings.status and kept.id < bookings.id));
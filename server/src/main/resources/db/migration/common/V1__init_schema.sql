@@ -0,0 +1,83 @@
+create table if not exists users(
+    id bigint generated by default as identity not null constraint users_pk primary key,
+    name varchar(255) not null,
+    email varchar(512) not null constraint uq_users_email unique
+);
+
+create table if not exists requests(
+    id bigint generated by default as identity not null constraint requests_pk primary key,
+    description  varchar(512) not null,
+    requestor_id bigint  not null,
+    created timestamp not null
+);
+
+create table if not exists items(
+    id bigint generated by default as identity not null constraint items_pk primary key,
+    name varchar(255) not null,
+    description varchar(512) not null,
+    is_available boolean not null,
+    owner_id bigint not null constraint items_users_id_fk references users
+        on update cascade on delete cascade,
+    request_id bigint constraint items_requests_id_fk references requests
+        on update cascade on delete cascade,
+    comment_count bigint default 0 not null
+);
+
+create table if not exists comments(
+    id bigint generated by default as identity not null constraint comments_pk primary key,
+    text varchar(512) not null,
+    item_id bigint  not null constraint comments_items_id_fk references items
+            on update cascade on delete cascade,
+    author_id bigint  not null constraint comments_users_id_fk references users
+            on update cascade on delete cascade
+);
+
+create sequence if not exists bookings_id_seq start with 1 increment by 50;
+
+create table if not exists bookings(
+    id bigint default nextval('bookings_id_seq') not null constraint bookings_pk primary key,
+    start_time timestamp not null,
+    end_time timestamp not null,
+    item_id bigint not null constraint bookings_items_id_fk references items
+            on update cascade on delete cascade,
+    booker_id bigint not null constraint bookings_users_id_fk references users
+            on update cascade on delete cascade,
+    status varchar(255) not null,
+    version bigint default 0 not null
+);
+
+create table if not exists item_booking_summary(
+    item_id bigint not null constraint item_booking_summary_pk primary key
+        constraint item_booking_summary_items_id_fk references items on update cascade on delete cascade,
+    last_booking_id bigint,
+    last_booker_id bigint,
+    last_start timestamp,
+    last_end timestamp,
+    next_booking_id bigint,
+    next_booker_id bigint,
+    next_start timestamp,
+    next_end timestamp
+);
+
+create index if not exists bookings_booker_id_start_time_idx on bookings (booker_id, start_time, id);
+create index if not exists bookings_booker_id_end_time_idx on bookings (booker_id, end_time, id);
+create index if not exists bookings_booker_id_status_start_time_idx on bookings (booker_id, status, start_time, id);
+create index if not exists bookings_booker_id_item_id_status_end_time_idx
+    on bookings (booker_id, item_id, status, end_time);
+create index if not exists bookings_item_id_start_time_idx on bookings (item_id, start_time, id);
+create index if not exists bookings_item_id_status_start_time_idx on bookings (item_id, status, start_time, id);
+create index if not exists bookings_item_id_status_end_time_idx on bookings (item_id, status, end_time);
+create index if not exists bookings_status_end_time_idx on bookings (status, end_time);
+create index if not exists bookings_status_start_time_idx on bookings (status, start_time);
+
+create index if not exists items_owner_id_id_idx on items (owner_id, id);
+create index if not exists items_request_id_idx on items (request_id);
+
+create index if not exists requests_requestor_id_created_idx on requests (requestor_id, created, id);
+create index if not exists requests_created_id_idx on requests (created, id);
+
+create unique index if not exists uq_comments_item_id_author_id on comments (item_id, author_id);
+create index if not exists comments_item_id_id_idx on comments (item_id, id);
+create index if not exists comments_author_id_idx on comments (author_id);
+
+create index if not exists item_booking_summary_next_start_idx on item_booking_summary (next_start);
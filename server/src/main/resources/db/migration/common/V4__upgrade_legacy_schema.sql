@@ -0,0 +1,4 @@
+alter table items add column if not exists comment_count bigint default 0 not null;
+update items set comment_count = (select count(*) from comments c where c.item_id = items.id);
+
+alter table bookings add column if not exists version bigint default 0 not null;
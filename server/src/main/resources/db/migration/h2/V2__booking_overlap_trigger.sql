@@ -0,0 +1,2 @@
+create trigger if not exists bookings_no_overlap before insert, update on bookings
+    for each row call 'ru.practicum.shareit.server.booking.repo.H2BookingOverlapTrigger';
@@ -0,0 +1,15 @@
+alter table users alter column id drop identity;
+create sequence if not exists users_id_seq start with 1 increment by 50;
+alter table users alter column id set default nextval('users_id_seq');
+
+alter table requests alter column id drop identity;
+create sequence if not exists requests_id_seq start with 1 increment by 50;
+alter table requests alter column id set default nextval('requests_id_seq');
+
+alter table items alter column id drop identity;
+create sequence if not exists items_id_seq start with 1 increment by 50;
+alter table items alter column id set default nextval('items_id_seq');
+
+alter table comments alter column id drop identity;
+create sequence if not exists comments_id_seq start with 1 increment by 50;
+alter table comments alter column id set default nextval('comments_id_seq');
@@ -0,0 +1,12 @@
+alter table items add column if not exists search_vector tsvector
+    generated always as (setweight(to_tsvector('russian', name), 'A') ||
+                         setweight(to_tsvector('russian', description), 'B')) stored;
+
+create index if not exists items_search_vector_idx on items using gin (search_vector);
+
+create extension if not exists btree_gist;
+
+alter table bookings drop constraint if exists bookings_no_overlap;
+alter table bookings add constraint bookings_no_overlap
+    exclude using gist (item_id with =, tsrange(start_time, end_time) with &&)
+    where (status in ('WAITING', 'APPROVED'));
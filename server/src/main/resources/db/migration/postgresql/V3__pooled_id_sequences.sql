@@ -0,0 +1,19 @@
+alter table users alter column id drop identity if exists;
+create sequence if not exists users_id_seq start with 1 increment by 50;
+select setval('users_id_seq', coalesce(max(id), 0) + 1, false) from users;
+alter table users alter column id set default nextval('users_id_seq');
+
+alter table requests alter column id drop identity if exists;
+create sequence if not exists requests_id_seq start with 1 increment by 50;
+select setval('requests_id_seq', coalesce(max(id), 0) + 1, false) from requests;
+alter table requests alter column id set default nextval('requests_id_seq');
+
+alter table items alter column id drop identity if exists;
+create sequence if not exists items_id_seq start with 1 increment by 50;
+select setval('items_id_seq', coalesce(max(id), 0) + 1, false) from items;
+alter table items alter column id set default nextval('items_id_seq');
+
+alter table comments alter column id drop identity if exists;
+create sequence if not exists comments_id_seq start with 1 increment by 50;
+select setval('comments_id_seq', coalesce(max(id), 0) + 1, false) from comments;
+alter table comments alter column id set default nextval('comments_id_seq');
@@ -0,0 +1,4 @@
+alter table bookings alter column id drop identity if exists;
+create sequence if not exists bookings_id_seq start with 1 increment by 50;
+select setval('bookings_id_seq', coalesce(max(id), 0) + 1, false) from bookings;
+alter table bookings alter column id set default nextval('bookings_id_seq');
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.server;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class SchemaMigrationTest {
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from users where email = 'migration@yandex.ru'");
+    }
+
+    @Test
+    void repeatedMigrateKeepsDataAndSkipsAppliedScripts() {
+        jdbcTemplate.update("insert into users (name, email) values ('user', 'migration@yandex.ru')");
+
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from users where email = 'migration@yandex.ru'",
+                Integer.class));
+    }
+
+    @Test
+    void legacyOverlappingBookingsAreRejectedBeforeOverlapCheck() {
+        SingleConnectionDataSource legacy = new SingleConnectionDataSource("jdbc:h2:mem:legacy", "test", "test", true);
+        try {
+            JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+            legacyJdbc.execute("create table users(id bigint generated by default as identity primary key, " +
+                    "name varchar(255) not null, email varchar(512) not null unique)");
+            legacyJdbc.execute("create table items(id bigint generated by default as identity primary key, " +
+                    "name varchar(255) not null, description varchar(512) not null, is_available boolean not null, " +
+                    "owner_id bigint not null references users, request_id bigint)");
+            legacyJdbc.execute("create table bookings(id bigint generated by default as identity primary key, " +
+                    "start_time timestamp not null, end_time timestamp not null, " +
+                    "item_id bigint not null references items, booker_id bigint not null references users, " +
+                    "status varchar(255) not null)");
+            legacyJdbc.update("insert into users (id, name, email) values (1, 'user', 'legacy@yandex.ru')");
+            legacyJdbc.update("insert into items (id, name, description, is_available, owner_id) " +
+                    "values (1, 'Дрель', 'Простая', true, 1)");
+            legacyJdbc.update("insert into bookings (id, start_time, end_time, item_id, booker_id, status) values " +
+                    "(1, '2030-01-01 10:00', '2030-01-03 10:00', 1, 1, 'WAITING'), " +
+                    "(2, '2030-01-02 10:00', '2030-01-04 10:00', 1, 1, 'APPROVED'), " +
+                    "(3, '2030-01-03 10:00', '2030-01-05 10:00', 1, 1, 'APPROVED'), " +
+                    "(4, '2030-01-10 10:00', '2030-01-11 10:00', 1, 1, 'WAITING')");
+
+            Flyway.configure()
+                    .dataSource(legacy)
+                    .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+
+            assertEquals(List.of("REJECTED", "APPROVED", "REJECTED", "WAITING"),
+                    legacyJdbc.queryForList("select status from bookings order by id", String.class));
+        } finally {
+            new JdbcTemplate(legacy).execute("drop all objects");
+            legacy.destroy();
+        }
+    }
+
+    @Test
+    void foreignKeysAndTimeColumnsAreIndexed() {
+        List<String> indexes = jdbcTemplate.queryForList("select lower(index_name) from information_schema.indexes",
+                String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "bookings_booker_id_start_time_idx",
+                "bookings_booker_id_end_time_idx",
+                "bookings_booker_id_status_start_time_idx",
+                "bookings_item_id_start_time_idx",
+                "bookings_item_id_status_start_time_idx",
+                "bookings_status_end_time_idx",
+                "items_owner_id_id_idx",
+                "items_request_id_idx",
+                "requests_requestor_id_created_idx",
+                "comments_item_id_id_idx",
+                "comments_author_id_idx")));
+    }
+}
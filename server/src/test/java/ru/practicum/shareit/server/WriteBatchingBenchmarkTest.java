@@ -0,0 +1,122 @@
+package ru.practicum.shareit.server;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.Status;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.sql.SqlScope;
+import ru.practicum.shareit.server.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+public class WriteBatchingBenchmarkTest {
+    private static final int ROWS = 5_000;
+    private static final int RUNS = 7;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void bulkItemCreationIsBatched() {
+        User owner = persist(new User(null, "owner", "owner@bench.ru"));
+
+        Result rowByRow = insert(1, "items", i -> new Item(null, "Вещь " + i, "Описание " + i, true, owner, null));
+        Result batched = insert(BATCH_SIZE, "items",
+                i -> new Item(null, "Вещь " + i, "Описание " + i, true, owner, null));
+
+        report("items", rowByRow, batched);
+    }
+
+    @Test
+    void bulkBookingCreationIsBatched() {
+        User owner = persist(new User(null, "owner", "owner@bench.ru"));
+        User booker = persist(new User(null, "booker", "booker@bench.ru"));
+        Item item = persist(new Item(null, "Дрель", "Ударная", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        Result rowByRow = insert(1, "bookings", i -> new Booking(null, start.plusDays(i),
+                start.plusDays(i).plusHours(2), item, booker, Status.WAITING, null));
+        Result batched = insert(BATCH_SIZE, "bookings", i -> new Booking(null, start.plusDays(i),
+                start.plusDays(i).plusHours(2), item, booker, Status.WAITING, null));
+
+        report("bookings", rowByRow, batched);
+    }
+
+    private <T> T persist(T entity) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(entity));
+        return entity;
+    }
+
+    private Result insert(int batchSize, String table, IntFunction<Object> row) {
+        long[] timings = new long[RUNS];
+        int statements = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long started = System.nanoTime();
+            try (SqlScope scope = SqlScope.open()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                    for (int i = 0; i < ROWS; i++) {
+                        entityManager.persist(row.apply(i));
+                    }
+                });
+                statements = scope.getStatements();
+            }
+            timings[run] = System.nanoTime() - started;
+            assertEquals(ROWS, jdbcTemplate.update("delete from " + table));
+        }
+        Arrays.sort(timings);
+        return new Result(timings[RUNS / 2], statements);
+    }
+
+    private void report(String table, Result rowByRow, Result batched) {
+        log.info("Вставка {} строк в {}: по одной {} мс и {} запросов, пачками по {} {} мс и {} запросов",
+                ROWS, table, rowByRow.getNanos() / 1_000_000, rowByRow.getStatements(), BATCH_SIZE,
+                batched.getNanos() / 1_000_000, batched.getStatements());
+        assertTrue(rowByRow.getStatements() >= ROWS);
+        assertTrue(batched.getStatements() <= 2 * (ROWS / BATCH_SIZE + 1));
+        assertTrue(batched.getNanos() < rowByRow.getNanos(), "Пакетная вставка не быстрее построчной");
+    }
+
+    @Value
+    private static class Result {
+        long nanos;
+        int statements;
+    }
+}
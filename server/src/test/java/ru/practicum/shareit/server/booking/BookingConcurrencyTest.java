@@ -0,0 +1,210 @@
+package ru.practicum.shareit.server.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
+import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
+import ru.practicum.shareit.server.booking.model.Status;
+import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.server.exception.ConflictException;
+import ru.practicum.shareit.server.exception.InvalidException;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int STRESS_THREADS = 16;
+    private static final int STRESS_OPERATIONS = 40;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void onlyOneOfConcurrentOverlappingBookingsSucceeds() throws Exception {
+        Long itemId = createItem();
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(createUser("booker" + i));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<BookingDtoReturned>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Long bookerId = bookers.get(i);
+            LocalDateTime shiftedStart = start.plusHours(i);
+            results.add(executor.submit(() -> {
+                ready.await();
+                return bookingService.createBooking(booking(itemId, shiftedStart, start.plusDays(1)), bookerId);
+            }));
+        }
+        ready.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        int created = 0;
+        for (Future<BookingDtoReturned> result : results) {
+            try {
+                assertNotNull(result.get().getId());
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ConflictException.class, e.getCause());
+            }
+        }
+        assertEquals(1, created);
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class));
+    }
+
+    @Test
+    void databaseRejectsOverlapMissedByCachedIntervals() {
+        Long itemId = createItem();
+        Long bookerId = createUser("booker");
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        bookingService.createBooking(booking(itemId, start.plusDays(5), start.plusDays(6)), bookerId);
+
+        jdbcTemplate.update("insert into bookings (start_time, end_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, 'APPROVED')", start, start.plusDays(1), itemId, bookerId);
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(
+                booking(itemId, start.plusHours(12), start.plusDays(2)), bookerId));
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(
+                booking(itemId, start.plusHours(1), start.plusHours(2)), bookerId));
+        assertNotNull(bookingService.createBooking(booking(itemId, start.plusDays(1), start.plusDays(2)), bookerId));
+    }
+
+    @Test
+    void hotItemsStayConsistentUnderMixedLoad() throws Exception {
+        List<Long> owners = new ArrayList<>();
+        List<Long> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            owners.add(createUser("owner" + i));
+            items.add(itemService.createItem(ItemDto.builder().name("Вещь " + i).description("Горячая")
+                    .available(true).build(), owners.get(i)).getId());
+        }
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bookers.add(createUser("booker" + i));
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        double acquiredBefore = meterRegistry.counter("shareit.booking.lock.acquired").count();
+
+        List<BookingDtoReturned> created = new CopyOnWriteArrayList<>();
+        Map<Long, AtomicInteger> approvals = new ConcurrentHashMap<>();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(STRESS_THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        for (int t = 0; t < STRESS_THREADS; t++) {
+            Random random = new Random(t);
+            executor.submit(() -> {
+                ready.await();
+                for (int i = 0; i < STRESS_OPERATIONS; i++) {
+                    try {
+                        if (created.isEmpty() || random.nextInt(10) < 6) {
+                            int item = random.nextInt(items.size());
+                            LocalDateTime start = base.plusHours(random.nextInt(48));
+                            created.add(bookingService.createBooking(booking(items.get(item), start,
+                                    start.plusHours(1 + random.nextInt(6))), bookers.get(random.nextInt(8))));
+                        } else {
+                            BookingDtoReturned booking = created.get(random.nextInt(created.size()));
+                            Long ownerId = owners.get(items.indexOf(booking.getItem().getId()));
+                            BookingDtoReturned result = bookingService.bookingConfirmation(booking.getId(),
+                                    random.nextBoolean(), ownerId);
+                            if (result.getStatus() == Status.APPROVED) {
+                                approvals.computeIfAbsent(booking.getId(), id -> new AtomicInteger()).incrementAndGet();
+                            }
+                        }
+                    } catch (ConflictException | InvalidException | OptimisticLockingFailureException e) {
+                        // ожидаемый отказ при гонке за вещь
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        ready.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(List.of(), unexpected);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from bookings a join bookings b " +
+                "on a.item_id = b.item_id and a.id < b.id " +
+                "and a.start_time < b.end_time and b.start_time < a.end_time " +
+                "where a.status in ('WAITING', 'APPROVED') and b.status in ('WAITING', 'APPROVED')", Integer.class));
+        approvals.forEach((id, count) -> {
+            assertEquals(1, count.get());
+            assertEquals("APPROVED", jdbcTemplate.queryForObject("select status from bookings where id = ?",
+                    String.class, id));
+        });
+        assertTrue(meterRegistry.counter("shareit.booking.lock.acquired").count() > acquiredBefore);
+    }
+
+    private Long createUser(String name) {
+        return userService.createUser(UserDto.builder().name(name).email(name + "@yandex.ru").build()).getId();
+    }
+
+    private Long createItem() {
+        Long ownerId = createUser("owner");
+        return itemService.createItem(
+                ItemDto.builder().name("Дрель").description("Простая дрель").available(true).build(), ownerId).getId();
+    }
+
+    private BookingDtoReceived booking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDtoReceived.builder().itemId(itemId).start(start).end(end).build();
+    }
+}
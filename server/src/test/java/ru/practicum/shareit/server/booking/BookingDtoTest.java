@@ -74,6 +74,12 @@ public class BookingDtoTest {
         assertThat(result).extractingJsonPathStringValue("$.start").isEqualTo(start.toString());
         assertThat(result).extractingJsonPathStringValue("$.end").isEqualTo(end.toString());
         assertThat(result).extractingJsonPathStringValue("$.status").isEqualTo(Status.APPROVED.toString());
+        assertThat(result).extractingJsonPathNumberValue("$.item.id").isEqualTo(10);
+        assertThat(result).extractingJsonPathStringValue("$.item.name").isEqualTo("item");
+        assertThat(result).doesNotHaveJsonPath("$.item.owner");
+        assertThat(result).doesNotHaveJsonPath("$.item.description");
+        assertThat(result).extractingJsonPathNumberValue("$.booker.id").isEqualTo(20);
+        assertThat(result).doesNotHaveJsonPath("$.booker.email");
     }
 
     @Test
@@ -3,7 +3,9 @@ package ru.practicum.shareit.server.booking;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingListView;
 import ru.practicum.shareit.server.booking.model.Status;
 import ru.practicum.shareit.server.booking.repo.BookingRepository;
 import ru.practicum.shareit.server.item.model.Item;
@@ -12,9 +14,12 @@ import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repo.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class BookingRepositoryTest {
@@ -37,11 +42,11 @@ public class BookingRepositoryTest {
         LocalDateTime currentTime = LocalDateTime.now();
 
         Booking booking1 = new Booking(1L, LocalDateTime.now().plusMinutes(10), LocalDateTime.now().plusHours(1),
-                item, booker, Status.APPROVED);
+                item, booker, Status.APPROVED, null);
         booking1 = bookingRepository.save(booking1);
 
         Booking booking2 = new Booking(2L, LocalDateTime.now().plusHours(3),
-                LocalDateTime.now().plusHours(4), item, booker, Status.APPROVED);
+                LocalDateTime.now().plusHours(4), item, booker, Status.APPROVED, null);
         booking2 = bookingRepository.save(booking2);
 
         List<Booking> foundBookings = bookingRepository
@@ -57,4 +62,90 @@ public class BookingRepositoryTest {
         assertEquals(booking2.getItem().getId(), foundBookings.get(1).getItem().getId());
         assertEquals(booking2.getBooker().getId(), foundBookings.get(1).getBooker().getId());
     }
+
+    @Test
+    public void testFindBookingsByItemOwnerIdAndStartIsAfterPagesInDatabase() {
+        User owner = userRepository.save(new User(null, "owner", "owner@yandex.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker@yandex.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        Booking future1 = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2),
+                item, booker, Status.APPROVED, null));
+        Booking future2 = bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4),
+                item, booker, Status.WAITING, null));
+        for (int i = 1; i <= 3; i++) {
+            bookingRepository.save(new Booking(null, now.minusDays(i * 2L), now.minusDays(i * 2L - 1),
+                    item, booker, Status.APPROVED, null));
+        }
+
+        List<BookingListView> firstPage =
+                bookingRepository.findBookingsByItemOwnerIdAndStartIsAfterOrderByStartDescIdDesc(
+                        owner.getId(), now, PageRequest.of(0, 2));
+
+        assertEquals(2, firstPage.size());
+        assertEquals(future2.getId(), firstPage.get(0).getId());
+        assertEquals(future1.getId(), firstPage.get(1).getId());
+
+        List<BookingListView> pastPage = bookingRepository.findBookingsByBookerIdAndEndIsBeforeOrderByStartDescIdDesc(
+                booker.getId(), now, PageRequest.of(1, 2));
+
+        assertEquals(1, pastPage.size());
+        assertEquals(now.minusDays(6), pastPage.get(0).getStart());
+    }
+
+    @Test
+    public void testFindBookingsByBookerIdAfterContinuesFromCursor() {
+        User owner = userRepository.save(new User(null, "owner", "owner@yandex.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker@yandex.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        Item other = itemRepository.save(new Item(null, "other", "description", true, owner, null));
+
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1);
+
+        Booking first = bookingRepository.save(new Booking(null, start, start.plusHours(1),
+                item, booker, Status.APPROVED, null));
+        Booking second = bookingRepository.save(new Booking(null, start, start.plusHours(2),
+                other, booker, Status.WAITING, null));
+        Booking earlier = bookingRepository.save(new Booking(null, start.minusDays(1), start.minusHours(20),
+                item, booker, Status.APPROVED, null));
+
+        List<BookingListView> page = bookingRepository.findBookingsByBookerIdAfter(
+                booker.getId(), second.getStart(), second.getId(), PageRequest.of(0, 10));
+
+        assertEquals(2, page.size());
+        assertEquals(first.getId(), page.get(0).getId());
+        assertEquals(earlier.getId(), page.get(1).getId());
+
+        List<BookingListView> waiting = bookingRepository.findBookingsByItemOwnerIdAndStatusAfter(
+                owner.getId(), Status.WAITING, start.plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 10));
+
+        assertEquals(1, waiting.size());
+        assertEquals(second.getId(), waiting.get(0).getId());
+    }
+
+    @Test
+    public void testExistsFinishedApprovedBookingOfBookerForItem() {
+        User owner = userRepository.save(new User(null, "owner", "owner@yandex.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker@yandex.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        LocalDateTime now = LocalDateTime.now();
+
+        bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                Status.REJECTED, null));
+        bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker,
+                Status.APPROVED, null));
+
+        assertFalse(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                Status.APPROVED, now));
+
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker,
+                Status.APPROVED, null));
+
+        assertTrue(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                Status.APPROVED, now));
+        assertFalse(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(owner.getId(), item.getId(),
+                Status.APPROVED, now));
+    }
 }
@@ -5,34 +5,52 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingConfirmationResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingListView;
+import ru.practicum.shareit.server.booking.model.BookingView;
 import ru.practicum.shareit.server.booking.model.Status;
 import ru.practicum.shareit.server.booking.repo.BookingRepository;
+import ru.practicum.shareit.server.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.server.booking.service.ItemLocks;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
 import ru.practicum.shareit.server.exception.InvalidException;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemAvailabilityIndex;
+import ru.practicum.shareit.server.item.service.ItemBookingTimelines;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repo.UserRepository;
+import ru.practicum.shareit.server.user.service.KnownUsers;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.server.booking.model.Status.APPROVED;
+import static ru.practicum.shareit.server.booking.model.Status.REJECTED;
 import static ru.practicum.shareit.server.booking.model.Status.WAITING;
 
 @ExtendWith(SpringExtension.class)
@@ -51,6 +69,21 @@ public class BookingServiceITest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private KnownUsers knownUsers;
+
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+
+    @Mock
+    private ItemLocks itemLocks;
+
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemBookingTimelines timelines;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -63,18 +96,161 @@ public class BookingServiceITest {
         when(itemRepository.findById(Mockito.<Long>any())).thenReturn(ofResult);
 
         User user = createUser(1L, "User", "user@yandex.ru");
-        Optional<User> ofResult2 = Optional.of(user);
-        when(userRepository.findById(Mockito.<Long>any())).thenReturn(ofResult2);
+        when(userRepository.getReferenceById(Mockito.<Long>any())).thenReturn(user);
 
         BookingDtoReceived bookingDto = mock(BookingDtoReceived.class);
 
         assertThrows(DataNotFoundException.class, () -> bookingService.createBooking(bookingDto, user.getId()));
 
         verify(itemRepository).findById(Mockito.<Long>any());
-        verify(userRepository).findById(Mockito.<Long>any());
         verify(bookingDto).getItemId();
     }
 
+    @Test
+    void createOverlappingBookingTest() {
+        User owner = createUser(1L, "Owner", "owner@yandex.ru");
+        User booker = createUser(2L, "Booker", "booker@yandex.ru");
+        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
+        BookingDtoReceived bookingDto = BookingDtoReceived.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build();
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(intervalIndex.overlaps(item.getId(), bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(bookingDto, booker.getId()));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void createBookingRejectedByDatabaseGuardTest() {
+        User owner = createUser(1L, "Owner", "owner@yandex.ru");
+        User booker = createUser(2L, "Booker", "booker@yandex.ru");
+        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
+        BookingDtoReceived bookingDto = BookingDtoReceived.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build();
+
+        when(userRepository.getReferenceById(booker.getId())).thenReturn(booker);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenThrow(overlapViolation());
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(bookingDto, booker.getId()));
+
+        verify(intervalIndex).invalidate(item.getId());
+        verify(intervalIndex, never()).add(any());
+    }
+
+    @Test
+    void createBookingByDeletedUserTest() {
+        User owner = createUser(1L, "Owner", "owner@yandex.ru");
+        User booker = createUser(2L, "Booker", "booker@yandex.ru");
+        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
+        BookingDtoReceived bookingDto = BookingDtoReceived.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build();
+
+        when(userRepository.getReferenceById(booker.getId())).thenReturn(booker);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenThrow(new DataIntegrityViolationException("booker fk",
+                new SQLException("booker fk", "23506")));
+
+        assertThrows(DataNotFoundException.class, () -> bookingService.createBooking(bookingDto, booker.getId()));
+
+        verify(knownUsers).evict(booker.getId());
+        verify(intervalIndex, never()).invalidate(any());
+    }
+
+    @Test
+    void createBookingsReportsResultPerElementTest() {
+        User owner = createUser(1L, "Owner", "owner@yandex.ru");
+        User booker = createUser(2L, "Booker", "booker@yandex.ru");
+        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
+        Item ownItem = createItem(2L, "Own", "Description", booker, new ItemRequest(), true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<BookingDtoReceived> bookingDtos = List.of(
+                batchBooking(item.getId(), start, start.plusDays(1)),
+                batchBooking(item.getId(), start.plusHours(12), start.plusDays(2)),
+                batchBooking(99L, start, start.plusDays(1)),
+                batchBooking(ownItem.getId(), start, start.plusDays(1)),
+                batchBooking(item.getId(), start.plusDays(3), start.plusDays(2)),
+                batchBooking(item.getId(), start.plusDays(7), start.plusDays(8)));
+
+        when(userRepository.getReferenceById(booker.getId())).thenReturn(booker);
+        when(itemRepository.findAllById(Set.of(item.getId(), ownItem.getId(), 99L))).thenReturn(List.of(item, ownItem));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookingDtos, booker.getId());
+
+        assertEquals(List.of(201, 409, 404, 404, 400, 201),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5),
+                results.stream().map(BookingBatchResultDto::getIndex).collect(Collectors.toList()));
+        assertEquals(start.plusDays(7), results.get(5).getBooking().getStart());
+        assertEquals(WAITING, results.get(5).getBooking().getStatus());
+        assertNull(results.get(1).getBooking());
+        assertNotNull(results.get(1).getError());
+
+        verify(itemLocks).lock(Set.of(item.getId(), ownItem.getId()));
+        verify(bookingRepository).saveAll(argThat(bookings -> ((Collection<Booking>) bookings).size() == 2));
+        verify(bookingRepository).flush();
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    void createBookingsRejectedByDatabaseGuardTest() {
+        User owner = createUser(1L, "Owner", "owner@yandex.ru");
+        User booker = createUser(2L, "Booker", "booker@yandex.ru");
+        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        when(userRepository.getReferenceById(booker.getId())).thenReturn(booker);
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item));
+        doThrow(overlapViolation()).when(bookingRepository).flush();
+
+        assertThrows(ConflictException.class, () -> bookingService.createBookings(
+                List.of(batchBooking(item.getId(), start, start.plusDays(1))), booker.getId()));
+
+        verify(intervalIndex).invalidate(item.getId());
+        verify(intervalIndex, never()).add(any());
+    }
+
+    @Test
+    void bookingConfirmationsRejectWithOneUpdateTest() {
+        List<BookingView> owned = List.of(bookingView(1L, 10L, WAITING), bookingView(2L, 10L, WAITING),
+                bookingView(3L, 11L, APPROVED));
+        when(bookingRepository.findBookingViewsByIdInAndItemOwnerId(any(), eq(1L))).thenReturn(owned);
+        when(bookingRepository.updateStatusByIdInAndStatus(List.of(1L, 2L), WAITING, REJECTED)).thenReturn(2);
+
+        List<BookingConfirmationResultDto> results =
+                bookingService.bookingConfirmations(List.of(1L, 2L, 3L, 4L, 2L), false, 1L);
+
+        assertEquals(List.of(200, 200, 400, 404), results.stream()
+                .map(BookingConfirmationResultDto::getStatus)
+                .collect(Collectors.toList()));
+        verify(itemLocks).lock(Set.of(10L));
+        verify(intervalIndex, times(2)).remove(any(BookingView.class));
+        verify(availabilityIndex).release(10L);
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(timelines);
+    }
+
+    @Test
+    void bookingConfirmationsConflictWhenStatusChangedTest() {
+        List<BookingView> owned = List.of(bookingView(1L, 10L, WAITING), bookingView(2L, 10L, WAITING));
+        when(bookingRepository.findBookingViewsByIdInAndItemOwnerId(any(), eq(1L))).thenReturn(owned);
+        when(bookingRepository.updateStatusByIdInAndStatus(any(), eq(WAITING), eq(APPROVED))).thenReturn(1);
+
+        assertThrows(ConflictException.class, () -> bookingService.bookingConfirmations(List.of(1L, 2L), true, 1L));
+        verify(intervalIndex, never()).remove(any(BookingView.class));
+    }
+
     @Test
     void bookingConfirmationTest() {
         User owner = createUser(1L, "Owner", "owner@yandex.ru");
@@ -87,15 +263,15 @@ public class BookingServiceITest {
         BookingDtoReturned bookingDto = BookingMapper.toBookingDtoReturned(booking);
 
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(booking.getId())).thenReturn(Optional.of(booking.getItem().getOwner()));
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BookingDtoReturned result = bookingService.bookingConfirmation(booking.getId(), true, owner.getId());
         result.getStart().format(DateTimeFormatter.ofPattern(TIME_PATTERN));
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(owner.getId()));
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(itemLocks).lock(item.getId());
+        verify(timelines).invalidate(item.getId());
 
         assertNotNull(result);
         assertEquals(bookingDto.getId(), result.getId());
@@ -126,27 +302,6 @@ public class BookingServiceITest {
         verifyNoMoreInteractions(bookingRepository);
     }
 
-    @Test
-    public void bookingConfirmationWrongUserTest() {
-        User owner = createUser(2L, "Owner", "owner@yandex.ru");
-
-        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
-
-        Booking booking = createBooking(
-                1L, LocalDateTime.now(), LocalDateTime.now().plusHours(2), item, new User(), APPROVED
-        );
-
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.empty());
-
-        assertThrows(DataNotFoundException.class, () ->
-                bookingService.bookingConfirmation(booking.getId(), true, owner.getId()));
-
-        verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(owner.getId()));
-        verifyNoMoreInteractions(bookingRepository);
-    }
-
     @Test
     public void bookingConfirmationDoubleApprovedTest() {
         User owner = createUser(2L, "Owner", "owner@yandex.ru");
@@ -158,13 +313,11 @@ public class BookingServiceITest {
         );
 
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(booking.getItem().getOwner()));
 
         assertThrows(InvalidException.class, () ->
                 bookingService.bookingConfirmation(booking.getId(), true, owner.getId()));
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
-        verify(userRepository, times(1)).findById(eq(owner.getId()));
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -181,12 +334,10 @@ public class BookingServiceITest {
         );
         BookingDtoReturned bookingDto = BookingMapper.toBookingDtoReturned(booking);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booking.getBooker()));
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         BookingDtoReturned result = bookingService.getBookingById(booking.getId(), booker.getId());
 
-        verify(userRepository, times(1)).findById(eq(booker.getId()));
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
 
         assertNotNull(result);
@@ -198,26 +349,6 @@ public class BookingServiceITest {
         assertEquals(bookingDto.getStatus(), result.getStatus());
     }
 
-    @Test
-    public void getBookingByIdWrongUserTest() {
-        User owner = createUser(2L, "Owner", "owner@yandex.ru");
-
-        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
-
-        User booker = createUser(2L, "Booker", "booker@yandex.ru");
-
-        Booking booking = createBooking(
-                1L, LocalDateTime.now(), LocalDateTime.now().plusHours(1), item, booker, WAITING
-        );
-
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.empty());
-
-        assertThrows(DataNotFoundException.class, () -> bookingService.getBookingById(booking.getId(), booker.getId()));
-
-        verify(userRepository, times(1)).findById(eq(booker.getId()));
-        verifyNoMoreInteractions(bookingRepository);
-    }
-
     @Test
     public void getBookingByWrongIdTest() {
         User owner = createUser(2L, "Owner", "owner@yandex.ru");
@@ -230,19 +361,16 @@ public class BookingServiceITest {
                 1L, LocalDateTime.now(), LocalDateTime.now().plusHours(1), item, booker, WAITING
         );
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(new User()));
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.empty());
 
         assertThrows(DataNotFoundException.class, () -> bookingService.getBookingById(booking.getId(), booker.getId()));
 
-        verify(userRepository, times(1)).findById(eq(booker.getId()));
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
     }
 
     @Test
     public void getAllBookingsByUserTest() {
         User user = createUser(1L, "User", "user@yandex.ru");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         User owner1 = createUser(1L, "Owner", "owner@yandex.ru");
         User owner2 = createUser(1L, "Owner2", "owner2@yandex.ru");
@@ -263,38 +391,36 @@ public class BookingServiceITest {
         bookingsDB.add(booking1);
         bookingsDB.add(booking2);
 
-        when(bookingRepository.findBookingsByBookerIdOrderByIdDesc(eq(1L),
-                any(PageRequest.class))).thenReturn(bookingsDB);
+        when(bookingRepository.findBookingsByBookerIdOrderByStartDescIdDesc(eq(1L),
+                any(OffsetPageRequest.class))).thenReturn(listViews(bookingsDB));
 
         List<BookingDtoReturned> result = bookingService.getAllBookingsByUser("ALL", user.getId(), FROM, SIZE);
 
-        verify(userRepository, times(1)).findById(eq(user.getId()));
         verify(bookingRepository,
-                times(1)).findBookingsByBookerIdOrderByIdDesc(eq(1L),
-                eq(PageRequest.of(0, SIZE)));
+                times(1)).findBookingsByBookerIdOrderByStartDescIdDesc(eq(1L),
+                eq(OffsetPageRequest.of(0, SIZE)));
 
         assertNotNull(result);
         assertEquals(2, result.size());
 
-        assertEquals(bookingDto1.getId(), result.get(1).getId());
-        assertEquals(bookingDto1.getStart(), result.get(1).getStart());
-        assertEquals(bookingDto1.getEnd(), result.get(1).getEnd());
-        assertEquals(bookingDto1.getItem(), result.get(1).getItem());
-        assertEquals(bookingDto1.getBooker(), result.get(1).getBooker());
-        assertEquals(bookingDto1.getStatus(), result.get(1).getStatus());
-
-        assertEquals(bookingDto2.getId(), result.get(0).getId());
-        assertEquals(bookingDto2.getStart(), result.get(0).getStart());
-        assertEquals(bookingDto2.getEnd(), result.get(0).getEnd());
-        assertEquals(bookingDto2.getItem(), result.get(0).getItem());
-        assertEquals(bookingDto2.getBooker(), result.get(0).getBooker());
-        assertEquals(bookingDto2.getStatus(), result.get(0).getStatus());
+        assertEquals(bookingDto1.getId(), result.get(0).getId());
+        assertEquals(bookingDto1.getStart(), result.get(0).getStart());
+        assertEquals(bookingDto1.getEnd(), result.get(0).getEnd());
+        assertEquals(bookingDto1.getItem(), result.get(0).getItem());
+        assertEquals(bookingDto1.getBooker(), result.get(0).getBooker());
+        assertEquals(bookingDto1.getStatus(), result.get(0).getStatus());
+
+        assertEquals(bookingDto2.getId(), result.get(1).getId());
+        assertEquals(bookingDto2.getStart(), result.get(1).getStart());
+        assertEquals(bookingDto2.getEnd(), result.get(1).getEnd());
+        assertEquals(bookingDto2.getItem(), result.get(1).getItem());
+        assertEquals(bookingDto2.getBooker(), result.get(1).getBooker());
+        assertEquals(bookingDto2.getStatus(), result.get(1).getStatus());
     }
 
     @Test
     public void getAllBookingsByOwnerTest() {
         User user = createUser(1L, "User", "user@yandex.ru");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         User owner1 = createUser(1L, "Owner", "owner@yandex.ru");
         User owner2 = createUser(1L, "Owner2", "owner2@yandex.ru");
@@ -315,31 +441,130 @@ public class BookingServiceITest {
         bookingsDB.add(booking1);
         bookingsDB.add(booking2);
 
-        when(bookingRepository.findBookingsByItemOwnerIdOrderByIdDesc(eq(1L),
-                any(PageRequest.class))).thenReturn(bookingsDB);
+        when(bookingRepository.findBookingsByItemOwnerIdOrderByStartDescIdDesc(eq(1L),
+                any(OffsetPageRequest.class))).thenReturn(listViews(bookingsDB));
 
         List<BookingDtoReturned> result = bookingService.getAllBookingsByOwner("ALL", user.getId(), FROM, SIZE);
 
-        verify(userRepository, times(1)).findById(eq(1L));
-        verify(bookingRepository, times(1)).findBookingsByItemOwnerIdOrderByIdDesc(eq(1L),
-                eq(PageRequest.of(0, SIZE)));
+        verify(bookingRepository, times(1)).findBookingsByItemOwnerIdOrderByStartDescIdDesc(eq(1L),
+                eq(OffsetPageRequest.of(0, SIZE)));
 
         assertNotNull(result);
         assertEquals(2, result.size());
 
-        assertEquals(bookingDto1.getId(), result.get(1).getId());
-        assertEquals(bookingDto1.getStart(), result.get(1).getStart());
-        assertEquals(bookingDto1.getEnd(), result.get(1).getEnd());
-        assertEquals(bookingDto1.getItem(), result.get(1).getItem());
-        assertEquals(bookingDto1.getBooker(), result.get(1).getBooker());
-        assertEquals(bookingDto1.getStatus(), result.get(1).getStatus());
-
-        assertEquals(bookingDto2.getId(), result.get(0).getId());
-        assertEquals(bookingDto2.getStart(), result.get(0).getStart());
-        assertEquals(bookingDto2.getEnd(), result.get(0).getEnd());
-        assertEquals(bookingDto2.getItem(), result.get(0).getItem());
-        assertEquals(bookingDto2.getBooker(), result.get(0).getBooker());
-        assertEquals(bookingDto2.getStatus(), result.get(0).getStatus());
+        assertEquals(bookingDto1.getId(), result.get(0).getId());
+        assertEquals(bookingDto1.getStart(), result.get(0).getStart());
+        assertEquals(bookingDto1.getEnd(), result.get(0).getEnd());
+        assertEquals(bookingDto1.getItem(), result.get(0).getItem());
+        assertEquals(bookingDto1.getBooker(), result.get(0).getBooker());
+        assertEquals(bookingDto1.getStatus(), result.get(0).getStatus());
+
+        assertEquals(bookingDto2.getId(), result.get(1).getId());
+        assertEquals(bookingDto2.getStart(), result.get(1).getStart());
+        assertEquals(bookingDto2.getEnd(), result.get(1).getEnd());
+        assertEquals(bookingDto2.getItem(), result.get(1).getItem());
+        assertEquals(bookingDto2.getBooker(), result.get(1).getBooker());
+        assertEquals(bookingDto2.getStatus(), result.get(1).getStatus());
+    }
+
+    @Test
+    public void getFutureBookingsByOwnerTest() {
+        User owner = createUser(1L, "Owner", "owner@yandex.ru");
+
+        Item item = createItem(1L, "Item", "Description", owner, new ItemRequest(), true);
+        Booking booking = createBooking(
+                1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, new User(), WAITING
+        );
+
+        when(bookingRepository.findBookingsByItemOwnerIdAndStartIsAfterOrderByStartDescIdDesc(eq(owner.getId()),
+                any(LocalDateTime.class), any(OffsetPageRequest.class))).thenReturn(listViews(List.of(booking)));
+
+        List<BookingDtoReturned> result = bookingService.getAllBookingsByOwner("future", owner.getId(), 20, SIZE);
+
+        verify(bookingRepository, times(1)).findBookingsByItemOwnerIdAndStartIsAfterOrderByStartDescIdDesc(
+                eq(owner.getId()), any(LocalDateTime.class), eq(OffsetPageRequest.of(20, SIZE)));
+        verifyNoMoreInteractions(bookingRepository);
+
+        assertEquals(1, result.size());
+        assertEquals(booking.getId(), result.get(0).getId());
+    }
+
+    @Test
+    public void getRejectedBookingsByUserTest() {
+        User booker = createUser(1L, "Booker", "booker@yandex.ru");
+
+        when(bookingRepository.findBookingsByBookerIdAndStatusOrderByStartDescIdDesc(eq(booker.getId()),
+                eq(Status.REJECTED), any(OffsetPageRequest.class))).thenReturn(new ArrayList<>());
+
+        List<BookingDtoReturned> result = bookingService.getAllBookingsByUser("REJECTED", booker.getId(), FROM, SIZE);
+
+        verify(bookingRepository, times(1)).findBookingsByBookerIdAndStatusOrderByStartDescIdDesc(
+                eq(booker.getId()), eq(Status.REJECTED), eq(OffsetPageRequest.of(0, SIZE)));
+        verifyNoMoreInteractions(bookingRepository);
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void getCurrentBookingsByUserTest() {
+        User booker = createUser(1L, "Booker", "booker@yandex.ru");
+
+        when(bookingRepository.findBookingsByBookerIdAndStartIsBeforeAndEndIsAfterOrderByEndDescIdDesc(
+                eq(booker.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(OffsetPageRequest.class)))
+                .thenReturn(new ArrayList<>());
+
+        List<BookingDtoReturned> result = bookingService.getAllBookingsByUser("CURRENT", booker.getId(), FROM, SIZE);
+
+        verify(bookingRepository, times(1)).findBookingsByBookerIdAndStartIsBeforeAndEndIsAfterOrderByEndDescIdDesc(
+                eq(booker.getId()), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(OffsetPageRequest.of(0, SIZE)));
+        verifyNoMoreInteractions(bookingRepository);
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void getBookingPageByUserReturnsNextCursorTest() {
+        User booker = createUser(1L, "Booker", "booker@yandex.ru");
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Booking booking = createBooking(5L, start, start.plusDays(1), new Item(), booker, WAITING);
+        when(bookingRepository.findBookingsByBookerIdOrderByStartDescIdDesc(eq(booker.getId()),
+                eq(OffsetPageRequest.of(0, 1)))).thenReturn(listViews(List.of(booking)));
+
+        CursorPage<BookingDtoReturned> page = bookingService.getBookingPageByUser("ALL", booker.getId(), 0, 1, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(Cursor.of(start, 5L), Cursor.decode(page.getNext()));
+    }
+
+    @Test
+    public void getBookingPageByOwnerAfterCursorTest() {
+        User owner = createUser(1L, "Owner", "owner@yandex.ru");
+
+        LocalDateTime end = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String after = Cursor.of(end, 7L).encode();
+        when(bookingRepository.findCurrentBookingsByItemOwnerIdAfter(eq(owner.getId()), any(LocalDateTime.class),
+                eq(end), eq(7L), eq(OffsetPageRequest.of(0, SIZE)))).thenReturn(new ArrayList<>());
+
+        CursorPage<BookingDtoReturned> page =
+                bookingService.getBookingPageByOwner("CURRENT", owner.getId(), FROM, SIZE, after);
+
+        verify(bookingRepository, times(1)).findCurrentBookingsByItemOwnerIdAfter(eq(owner.getId()),
+                any(LocalDateTime.class), eq(end), eq(7L), eq(OffsetPageRequest.of(0, SIZE)));
+        verifyNoMoreInteractions(bookingRepository);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    public void getBookingPageByUserWithBrokenCursorTest() {
+        User booker = createUser(1L, "Booker", "booker@yandex.ru");
+
+        assertThrows(InvalidException.class,
+                () -> bookingService.getBookingPageByUser("ALL", booker.getId(), FROM, SIZE, "broken"));
+        verifyNoInteractions(bookingRepository);
     }
 
     private User createUser(Long id, String name, String email) {
@@ -362,6 +587,67 @@ public class BookingServiceITest {
                 .build();
     }
 
+    private BookingView bookingView(Long id, Long itemId, Status status) {
+        BookingView view = mock(BookingView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getItemId()).thenReturn(itemId);
+        when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+
+    private List<BookingListView> listViews(List<Booking> bookings) {
+        return bookings.stream()
+                .map(this::listView)
+                .collect(Collectors.toList());
+    }
+
+    private BookingListView listView(Booking booking) {
+        return new BookingListView() {
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return booking.getStart();
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return booking.getEnd();
+            }
+
+            @Override
+            public Status getStatus() {
+                return booking.getStatus();
+            }
+
+            @Override
+            public Long getItemId() {
+                return booking.getItem().getId();
+            }
+
+            @Override
+            public String getItemName() {
+                return booking.getItem().getName();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booking.getBooker().getId();
+            }
+        };
+    }
+
+    private BookingDtoReceived batchBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDtoReceived.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build();
+    }
+
     private Booking createBooking(Long id,
                                   LocalDateTime start,
                                   LocalDateTime end,
@@ -377,4 +663,8 @@ public class BookingServiceITest {
                 .status(status)
                 .build();
     }
+
+    private DataIntegrityViolationException overlapViolation() {
+        return new DataIntegrityViolationException("overlap", new SQLException("overlap", "23P01"));
+    }
 }
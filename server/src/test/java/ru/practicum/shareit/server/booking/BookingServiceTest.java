@@ -1,9 +1,13 @@
 package ru.practicum.shareit.server.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingConfirmationResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
@@ -22,12 +26,17 @@ import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.service.UserServiceImpl;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static java.lang.Thread.sleep;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ru.practicum.shareit.server.booking.model.Status.REJECTED;
 import static ru.practicum.shareit.server.booking.model.Status.WAITING;
 
@@ -44,11 +53,17 @@ public class BookingServiceTest {
     @Autowired
     private UserServiceImpl userService;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private final User user = new User(null, "user", "user@yandex.ru");
     private final User booker = new User(null, "booker", "booker@yandex.ru");
     private final Item item = new Item(null, "item", "description", true, user, null);
     private final Booking booking = new Booking(null, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(3),
-            item, user, WAITING);
+            item, user, WAITING, null);
 
     @Test
     void createBookingTest() {
@@ -70,6 +85,105 @@ public class BookingServiceTest {
         assertEquals(bookingDtoReturned.getBooker().getId(), booker.getId());
     }
 
+    @Test
+    void createWeeklyBookingsInBatchTest() {
+        user.setId(userService.createUser(UserMapper.toUserDto(user)).getId());
+        booker.setId(userService.createUser(UserMapper.toUserDto(booker)).getId());
+        item.setId(itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoReceived> weekly = new ArrayList<>();
+        for (int week = 0; week < 60; week++) {
+            weekly.add(BookingDtoReceived.builder()
+                    .itemId(item.getId())
+                    .start(start.plusWeeks(week))
+                    .end(start.plusWeeks(week).plusDays(2))
+                    .build());
+        }
+        weekly.add(weekly.get(10));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(weekly, booker.getId());
+
+        assertEquals(61, results.size());
+        assertEquals(60, results.stream().filter(result -> result.getStatus() == 201).count());
+        assertEquals(409, results.get(60).getStatus());
+        assertEquals(60, results.stream()
+                .filter(result -> result.getBooking() != null)
+                .map(result -> result.getBooking().getId())
+                .distinct()
+                .count());
+        assertEquals(60, bookingService.getAllBookingsByUser("FUTURE", booker.getId(), 0, 100).size());
+    }
+
+    @Test
+    void createBookingsInsertsInJdbcBatchesTest() {
+        user.setId(userService.createUser(UserMapper.toUserDto(user)).getId());
+        booker.setId(userService.createUser(UserMapper.toUserDto(booker)).getId());
+        item.setId(itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoReceived> daily = new ArrayList<>();
+        for (int day = 0; day < 120; day++) {
+            daily.add(BookingDtoReceived.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(day))
+                    .end(start.plusDays(day).plusHours(2))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            List<BookingBatchResultDto> results = bookingService.createBookings(daily, booker.getId());
+
+            assertEquals(120, results.stream().filter(result -> result.getStatus() == 201).count());
+            assertEquals(120, statistics.getEntityInsertCount());
+            assertTrue(statistics.getPrepareStatementCount() < 10);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void bookingConfirmationsInBulkTest() {
+        user.setId(userService.createUser(UserMapper.toUserDto(user)).getId());
+        booker.setId(userService.createUser(UserMapper.toUserDto(booker)).getId());
+        item.setId(itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId());
+        Long foreignItemId = itemService.createItem(
+                ItemDto.builder().name("drill").description("foreign").available(true).build(), booker.getId()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoReceived> bookings = new ArrayList<>();
+        for (int day = 0; day < 4; day++) {
+            bookings.add(BookingDtoReceived.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(day))
+                    .end(start.plusDays(day).plusHours(2))
+                    .build());
+        }
+        List<Long> ids = new ArrayList<>();
+        bookingService.createBookings(bookings, booker.getId()).forEach(result -> ids.add(result.getBooking().getId()));
+        Long foreignBookingId = bookingService.createBooking(BookingDtoReceived.builder()
+                .itemId(foreignItemId)
+                .start(start)
+                .end(start.plusHours(2))
+                .build(), user.getId()).getId();
+        bookingService.bookingConfirmation(ids.get(3), false, user.getId());
+
+        List<BookingConfirmationResultDto> results = bookingService.bookingConfirmations(
+                List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(3), foreignBookingId), true, user.getId());
+
+        assertEquals(List.of(200, 200, 200, 400, 404), results.stream()
+                .map(BookingConfirmationResultDto::getStatus)
+                .collect(Collectors.toList()));
+        assertEquals(REJECTED, results.get(3).getBookingStatus());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Status.APPROVED, bookingService.getBookingById(ids.get(i), user.getId()).getStatus());
+        }
+        assertEquals(REJECTED, bookingService.getBookingById(ids.get(3), user.getId()).getStatus());
+        assertEquals(WAITING, bookingService.getBookingById(foreignBookingId, user.getId()).getStatus());
+    }
+
     @Test
     void createBookingWithWrongStartTimeTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -243,12 +357,6 @@ public class BookingServiceTest {
                 () -> bookingService.getBookingById(1L, user.getId()));
     }
 
-    @Test
-    void getBookingByIdUserTest() {
-        assertThrows(DataNotFoundException.class,
-                () -> bookingService.createBooking(BookingMapper.toBookingDtoReceived(booking), 6L));
-    }
-
     @Test
     void getBookingByIdWrongUserTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -293,12 +401,6 @@ public class BookingServiceTest {
         assertEquals(bookings.get(0).getItem().getId(), item.getId());
     }
 
-    @Test
-    void getAllBookingsByWrongUserTest() {
-        assertThrows(DataNotFoundException.class,
-                () -> bookingService.getAllBookingsByUser("ALL", 5L, 2, 10));
-    }
-
     @Test
     void getAllBookingsByOwnerTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -320,6 +422,62 @@ public class BookingServiceTest {
         assertEquals(bookings.get(0).getItem().getId(), item.getId());
     }
 
+    @Test
+    void ownerBookingsPageLoadsOnlyProjectionTest() {
+        user.setId(userService.createUser(UserMapper.toUserDto(user)).getId());
+        booker.setId(userService.createUser(UserMapper.toUserDto(booker)).getId());
+        Long first = itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId();
+        Long second = itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 4; i++) {
+            bookingService.createBooking(BookingDtoReceived.builder()
+                    .itemId(i % 2 == 0 ? first : second)
+                    .start(start.plusHours(i * 4L))
+                    .end(start.plusHours(i * 4L + 2))
+                    .build(), booker.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            List<BookingDtoReturned> bookings = bookingService.getAllBookingsByOwner("ALL", user.getId(), 0, 10);
+
+            assertEquals(4, bookings.size());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals(item.getName(), bookings.get(0).getItem().getName());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void bookingByIdFetchesItemWithBookingTest() {
+        user.setId(userService.createUser(UserMapper.toUserDto(user)).getId());
+        booker.setId(userService.createUser(UserMapper.toUserDto(booker)).getId());
+        item.setId(itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId());
+        Long bookingId = bookingService.createBooking(BookingMapper.toBookingDtoReceived(booking), booker.getId())
+                .getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            BookingDtoReturned bookingDto = bookingService.getBookingById(bookingId, user.getId());
+
+            assertEquals(item.getName(), bookingDto.getItem().getName());
+            assertEquals(booker.getId(), bookingDto.getBooker().getId());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     void getWaitingBookingsByOwnerTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -448,13 +606,4 @@ public class BookingServiceTest {
         assertThrows(UnsupportedStateException.class,
                 () -> bookingService.getAllBookingsByOwner("UNSUPPORTED", user.getId(), 0, 10));
     }
-
-    @Test
-    void getBookingsByWrongOwnerTest() {
-        UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
-        user.setId(userDto.getId());
-
-        assertThrows(DataNotFoundException.class,
-                () -> bookingService.getAllBookingsByOwner("ALL", 3L, 2, 10));
-    }
 }
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.server.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.booking.service.ItemLocks;
+import ru.practicum.shareit.server.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemLocksTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ItemLocks locks = new ItemLocks(registry, 16, Duration.ofMillis(100));
+
+    @AfterEach
+    void cleanUp() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lockOutsideTransactionIsRejected() {
+        assertThrows(IllegalStateException.class, () -> locks.lock(1L));
+    }
+
+    @Test
+    void waitIsBoundedAndLockIsReleasedOnCompletion() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            locks.lock(1L);
+            locked.countDown();
+            await(release);
+        }, TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ConflictException.class, () -> inTransaction(() -> locks.lock(1L),
+                TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(1, registry.counter("shareit.booking.lock.timeouts").count());
+        assertEquals(1, registry.counter("shareit.booking.lock.contended").count());
+        assertEquals(1, registry.timer("shareit.booking.lock.wait").count());
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        inTransaction(() -> locks.lock(1L), TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(2, registry.counter("shareit.booking.lock.acquired").count());
+        assertEquals(0, registry.get("shareit.booking.lock.queued").gauge().value());
+    }
+
+    private void inTransaction(Runnable action, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.server.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.service.RequestServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.repo.UserRepository;
+import ru.practicum.shareit.server.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class EntityCacheTest {
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private RequestServiceImpl requestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Statistics statistics;
+    private Long ownerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("cache@yandex.ru").build()).getId();
+        itemId = itemService.createItem(item("Дрель", null), ownerId).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void updatedUserIsNotServedStaleTest() {
+        assertEquals("owner", userService.getUserById(ownerId).getName());
+
+        userService.updateUser(ownerId, UserDto.builder().name("renamed").build());
+        long hits = region(EntityCacheConfig.USERS).getHitCount();
+
+        assertEquals("renamed", userRepository.findById(ownerId).orElseThrow().getName());
+        assertEquals(hits + 1, region(EntityCacheConfig.USERS).getHitCount());
+    }
+
+    @Test
+    void updatedItemIsNotServedStaleTest() {
+        assertEquals("Дрель", itemRepository.findById(itemId).orElseThrow().getName());
+
+        itemService.updateItem(itemId, ItemDto.builder().name("Перфоратор").build(), ownerId);
+        long hits = region(EntityCacheConfig.ITEMS).getHitCount();
+
+        assertEquals("Перфоратор", itemRepository.findById(itemId).orElseThrow().getName());
+        assertEquals(hits + 1, region(EntityCacheConfig.ITEMS).getHitCount());
+    }
+
+    @Test
+    void commentCountUpdateKeepsItemsCachedTest() {
+        Long requestId = requestService.createRequest(ItemRequestDto.builder().description("Нужна дрель").build(),
+                ownerId).getId();
+        itemService.createItem(item("Дрель", requestId), ownerId);
+        itemRepository.findItemsByRequestId(requestId);
+        itemRepository.findById(itemId);
+        long hits = region(EntityCacheConfig.ITEMS).getHitCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+
+        transactionTemplate.executeWithoutResult(status -> itemRepository.incrementCommentCount(itemId));
+        itemRepository.findById(itemId);
+
+        assertEquals(hits + 1, region(EntityCacheConfig.ITEMS).getHitCount());
+        itemRepository.findItemsByRequestId(requestId);
+        assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+        assertEquals(1L, itemRepository.findCommentCountById(itemId));
+    }
+
+    @Test
+    void itemsByRequestQueryIsCachedUntilItemsChangeTest() {
+        Long requestId = requestService.createRequest(ItemRequestDto.builder().description("Нужна дрель").build(),
+                ownerId).getId();
+        itemService.createItem(item("Дрель", requestId), ownerId);
+
+        assertEquals(1, itemRepository.findItemsByRequestId(requestId).size());
+        long hits = statistics.getQueryCacheHitCount();
+        List<Item> cached = itemRepository.findItemsByRequestId(requestId);
+        assertEquals(1, cached.size());
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+
+        itemService.createItem(item("Шуруповёрт", requestId), ownerId);
+
+        assertEquals(2, itemRepository.findItemsByRequestId(requestId).size());
+    }
+
+    @Test
+    void cacheStatisticsAreExposedAsMetricsTest() {
+        itemRepository.findById(itemId);
+        itemRepository.findById(itemId);
+
+        double hits = registry.get("hibernate.second.level.cache.requests")
+                .tag("region", EntityCacheConfig.ITEMS)
+                .tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(hits > 0);
+        registry.get("hibernate.second.level.cache.requests")
+                .tag("region", EntityCacheConfig.USERS)
+                .tag("result", "miss")
+                .functionCounter();
+    }
+
+    private CacheRegionStatistics region(String name) {
+        return statistics.getDomainDataRegionStatistics(name);
+    }
+
+    private static ItemDto item(String name, Long requestId) {
+        return ItemDto.builder().name(name).description("Ударная").available(true).requestId(requestId).build();
+    }
+}
@@ -9,12 +9,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.server.booking.dto.BookingConfirmationResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.service.KnownUsers;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -24,6 +28,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.server.booking.model.Status.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -40,6 +45,9 @@ class BookingControllerTest {
     @MockBean
     private BookingServiceImpl bookingService;
 
+    @MockBean
+    private KnownUsers knownUsers;
+
     private final User user = new User(1L, "User", "user@yandex.ru");
     private final User user2 = new User(2L, "User2", "user2@yandex.ru");
     private final Item item = new Item(1L,"item", "description", true, user, null);
@@ -49,7 +57,8 @@ class BookingControllerTest {
             LocalDateTime.now().plusDays(1),
             item,
             user2,
-            WAITING
+            WAITING,
+            null
     );
     private final BookingDtoReturned bookingDtoReturned = BookingMapper.toBookingDtoReturned(booking);
 
@@ -66,7 +75,50 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(booking.getId()), Long.class))
                 .andExpect(jsonPath("$.item.name", is(booking.getItem().getName()), String.class))
-                .andExpect(jsonPath("$.booker.name", is(user2.getName()), String.class));
+                .andExpect(jsonPath("$.booker.id", is(user2.getId()), Long.class))
+                .andExpect(jsonPath("$.booker.name").doesNotExist())
+                .andExpect(jsonPath("$.item.owner").doesNotExist());
+    }
+
+    @Test
+    void createBookingsTest() throws Exception {
+        when(bookingService.createBookings(anyList(), anyLong())).thenReturn(List.of(
+                BookingBatchResultDto.builder().index(0).status(201).booking(bookingDtoReturned).build(),
+                BookingBatchResultDto.builder().index(1).status(409).error("Вещь уже забронирована").build()));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(List.of(bookingDtoReturned, bookingDtoReturned)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].booking.id", is(booking.getId()), Long.class))
+                .andExpect(jsonPath("$[1].status", is(409)))
+                .andExpect(jsonPath("$[1].error", is("Вещь уже забронирована")));
+
+        verify(bookingService).createBookings(argThat(bookings -> bookings.size() == 2), eq(user.getId()));
+    }
+
+    @Test
+    void bookingConfirmationsTest() throws Exception {
+        when(bookingService.bookingConfirmations(anyList(), anyBoolean(), anyLong())).thenReturn(List.of(
+                BookingConfirmationResultDto.builder().bookingId(1L).status(200).bookingStatus(APPROVED).build(),
+                BookingConfirmationResultDto.builder().bookingId(2L).status(404).error("Не найдено").build()));
+
+        mvc.perform(patch("/bookings/batch")
+                        .param("approved", "true")
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingStatus", is("APPROVED")))
+                .andExpect(jsonPath("$[1].status", is(404)));
+
+        verify(bookingService).bookingConfirmations(eq(List.of(1L, 2L)), eq(true), eq(user.getId()));
     }
 
     @Test
@@ -101,8 +153,8 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsByUserTest() throws Exception {
-        when(bookingService.getAllBookingsByUser(anyString(), anyLong(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDtoReturned));
+        when(bookingService.getBookingPageByUser(anyString(), anyLong(), anyInt(), anyInt(), isNull()))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoReturned), null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", user2.getId())
@@ -113,13 +165,29 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.name", is(booking.getItem().getName()), String.class));
 
         Mockito.verify(bookingService, Mockito.times(1))
-                .getAllBookingsByUser(anyString(), anyLong(), anyInt(), anyInt());
+                .getBookingPageByUser(anyString(), anyLong(), anyInt(), anyInt(), isNull());
+    }
+
+    @Test
+    void getAllBookingsByUserAfterCursorTest() throws Exception {
+        when(bookingService.getBookingPageByUser(anyString(), anyLong(), anyInt(), anyInt(), eq("cursor")))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoReturned), "next"));
+
+        mvc.perform(get("/bookings")
+                        .param("after", "cursor")
+                        .header("X-Sharer-User-Id", user2.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id", is(booking.getId()), Long.class));
+
+        Mockito.verify(bookingService, Mockito.times(1))
+                .getBookingPageByUser(anyString(), anyLong(), anyInt(), anyInt(), eq("cursor"));
     }
 
     @Test
     void getAllBookingsByOwnerTest() throws Exception {
-        when(bookingService.getAllBookingsByOwner(anyString(), anyLong(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDtoReturned));
+        when(bookingService.getBookingPageByOwner(anyString(), anyLong(), anyInt(), anyInt(), isNull()))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoReturned), null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", user.getId()))
@@ -128,6 +196,6 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.name", is(booking.getItem().getName()), String.class));
 
         Mockito.verify(bookingService, Mockito.times(1))
-                .getAllBookingsByOwner(anyString(), anyLong(), anyInt(), anyInt());
+                .getBookingPageByOwner(anyString(), anyLong(), anyInt(), anyInt(), isNull());
     }
 }
\ No newline at end of file
@@ -8,21 +8,28 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.dto.TimeSlotDto;
 import ru.practicum.shareit.server.item.mapper.CommentMapper;
 import ru.practicum.shareit.server.item.mapper.ItemMapper;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.service.KnownUsers;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import static org.hamcrest.Matchers.*;
@@ -34,6 +41,9 @@ class ItemControllerTest {
     @MockBean
     private ItemServiceImpl itemService;
 
+    @MockBean
+    private KnownUsers knownUsers;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -82,6 +92,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName", is(userDto.getName()), String.class));
     }
 
+    @Test
+    void getCommentsTest() throws Exception {
+        when(itemService.getCommentPage(item.getId(), "cursor", 1))
+                .thenReturn(new CursorPage<>(List.of(commentDto), "next"));
+
+        mockMvc.perform(get("/items/{id}/comments", item.getId())
+                        .param("after", "cursor")
+                        .param("limit", "1")
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id", is(commentDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].authorName", is(userDto.getName()), String.class));
+    }
+
     @Test
     void updateItemTest() throws Exception {
         itemDto.setDescription("new description");
@@ -118,7 +143,8 @@ class ItemControllerTest {
 
     @Test
     void viewAllItemsTest() throws Exception {
-        when(itemService.viewAllItems(anyLong(), anyInt(), anyInt())).thenReturn(Collections.emptyList());
+        when(itemService.viewItemPage(anyLong(), anyInt(), anyInt(), isNull()))
+                .thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
         mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", userDto.getId()))
@@ -126,12 +152,13 @@ class ItemControllerTest {
                 .andExpect(content().json("[]"));
 
         verify(itemService, times(1))
-                .viewAllItems(anyLong(), anyInt(), anyInt());
+                .viewItemPage(anyLong(), anyInt(), anyInt(), isNull());
     }
 
     @Test
     void searchItemsTest() throws Exception {
-        when(itemService.searchItems(anyString(), anyInt(), anyInt())).thenReturn(List.of(itemDto));
+        when(itemService.searchItemPage(anyString(), anyInt(), anyInt(), isNull(), isNull(), isNull()))
+                .thenReturn(new CursorPage<>(List.of(itemDto), null));
 
         mockMvc.perform(get("/items/search").param("text", "item1")
                         .content(mapper.writeValueAsString(itemDto))
@@ -144,6 +171,67 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name", is(itemDto.getName()), String.class));
 
         verify(itemService, times(1))
-                .searchItems(anyString(), anyInt(), anyInt());
+                .searchItemPage(anyString(), anyInt(), anyInt(), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    void searchAvailableItemsTest() throws Exception {
+        when(itemService.searchItemPage(anyString(), anyInt(), anyInt(), isNull(), any(), any()))
+                .thenReturn(new CursorPage<>(List.of(itemDto), null));
+
+        mockMvc.perform(get("/items/search").param("text", "item1")
+                        .param("availableFrom", "2030-06-12")
+                        .param("availableTo", "2030-06-15")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class));
+
+        verify(itemService, times(1)).searchItemPage("item1", 0, 10, null,
+                LocalDate.of(2030, 6, 12), LocalDate.of(2030, 6, 15));
+    }
+
+    @Test
+    void suggestItemsTest() throws Exception {
+        when(itemService.suggestItems(anyString(), anyInt()))
+                .thenReturn(List.of(ItemSuggestionDto.builder().id(item.getId()).name(item.getName()).build()));
+
+        mockMvc.perform(get("/items/suggest").param("prefix", "ite")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(item.getId()), Long.class))
+                .andExpect(jsonPath("$[0].name", is(item.getName()), String.class));
+
+        verify(itemService, times(1)).suggestItems("ite", 10);
+    }
+
+    @Test
+    void getItemAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemService.getItemAvailability(anyLong(), any(), any(), anyBoolean()))
+                .thenReturn(ItemAvailabilityDto.builder()
+                        .itemId(item.getId())
+                        .from(from)
+                        .to(to)
+                        .busy(List.of(TimeSlotDto.builder().start(from).end(from.plusDays(1)).build()))
+                        .free(List.of(TimeSlotDto.builder().start(from.plusDays(1)).end(to).build()))
+                        .build());
+
+        mockMvc.perform(get("/items/{itemId}/availability", item.getId())
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-03T10:00:00")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(item.getId()), Long.class))
+                .andExpect(jsonPath("$.busy[0].end", is("2030-01-02T10:00:00")))
+                .andExpect(jsonPath("$.free[0].start", is("2030-01-02T10:00:00")));
+
+        verify(itemService, times(1)).getItemAvailability(item.getId(), from, to, false);
     }
-}
\ No newline at end of file
+}
@@ -8,11 +8,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.mapper.RequestMapper;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.request.service.RequestServiceImpl;
 import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.service.KnownUsers;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -21,6 +23,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,6 +39,9 @@ class ItemRequestControllerTest {
     @MockBean
     private RequestServiceImpl requestService;
 
+    @MockBean
+    private KnownUsers knownUsers;
+
     private final User user = new User(1L, "User1", "user1@yandex.ru");
     private final ItemRequest itemRequest = new ItemRequest(1L, "text", user, LocalDateTime.now());
     private final ItemRequestDto itemRequestDto = RequestMapper.toItemRequestDto(itemRequest);
@@ -72,8 +78,8 @@ class ItemRequestControllerTest {
 
     @Test
     void getAllRequestsTest() throws Exception {
-        when(requestService.getAllRequests(anyLong(), anyInt(), anyInt()))
-                .thenReturn(List.of(itemRequestDto));
+        when(requestService.getRequestPage(anyLong(), anyInt(), anyInt(), isNull()))
+                .thenReturn(new CursorPage<>(List.of(itemRequestDto), null));
         mvc.perform(get("/requests/all")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.server.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
+import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.service.RequestServiceImpl;
+import ru.practicum.shareit.server.support.QueryBudget;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class QueryBudgetTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private RequestServiceImpl requestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+        Long requestId = requestService.createRequest(ItemRequestDto.builder().description("Нужна дрель").build(),
+                bookerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            itemId = itemService.createItem(ItemDto.builder()
+                    .name("Дрель " + i)
+                    .description("Ударная")
+                    .available(true)
+                    .requestId(requestId)
+                    .build(), ownerId).getId();
+            bookingId = bookingService.createBooking(BookingDtoReceived.builder()
+                    .itemId(itemId)
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(2))
+                    .build(), bookerId).getId();
+            bookingService.bookingConfirmation(bookingId, true, ownerId);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @QueryBudget(2)
+    void ownerBookingsTest() throws Exception {
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ITEMS)));
+    }
+
+    @Test
+    @QueryBudget(2)
+    void bookerBookingsTest() throws Exception {
+        mvc.perform(get("/bookings").header(USER_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ITEMS)));
+    }
+
+    @Test
+    @QueryBudget(2)
+    void bookingByIdTest() throws Exception {
+        mvc.perform(get("/bookings/{id}", bookingId).header(USER_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.id").value(itemId));
+    }
+
+    @Test
+    @QueryBudget(2)
+    void ownerItemsTest() throws Exception {
+        mvc.perform(get("/items").header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ITEMS)));
+    }
+
+    @Test
+    @QueryBudget(4)
+    void itemByIdTest() throws Exception {
+        mvc.perform(get("/items/{id}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(itemId));
+    }
+
+    @Test
+    @QueryBudget(3)
+    void userRequestsTest() throws Exception {
+        mvc.perform(get("/requests").header(USER_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].items", hasSize(ITEMS)));
+    }
+
+    @Test
+    @QueryBudget(1)
+    void allUsersTest() throws Exception {
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @QueryBudget(7)
+    void commentItemTest() throws Exception {
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id = ?",
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), bookingId);
+
+        mvc.perform(post("/items/{id}/comment", itemId)
+                        .header(USER_HEADER, bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"Отличная дрель\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authorName").value("booker"));
+    }
+
+    @Test
+    void statementsRecordedPerControllerMethodTest() throws Exception {
+        DistributionSummary summary = registry.summary("shareit.sql.statements",
+                "controller", "BookingController", "method", "getAllBookingsByOwner");
+        long requests = summary.count();
+        double statements = summary.totalAmount();
+
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId))
+                .andExpect(status().isOk());
+
+        assertEquals(requests + 1, summary.count());
+        assertEquals(statements + 2, summary.totalAmount());
+        assertEquals(requests + 1, registry.timer("shareit.sql.time",
+                "controller", "BookingController", "method", "getAllBookingsByOwner").count());
+    }
+
+    private Long createUser(String name) {
+        return userService.createUser(UserDto.builder().name(name).email(name + "@yandex.ru").build()).getId();
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.server.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.sql.SqlScope;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SharerUserIdTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(UserDto.builder().name("user").email("sharer@yandex.ru").build()).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void knownUserIsCheckedWithoutQueryTest() throws Exception {
+        int first = statements(userId);
+        double hits = registry.get("cache.gets").tag("cache", "shareit.user.known").tag("result", "hit")
+                .functionCounter().count();
+
+        int second = statements(userId);
+
+        assertEquals(first - 1, second);
+        assertTrue(registry.get("cache.gets").tag("cache", "shareit.user.known").tag("result", "hit")
+                .functionCounter().count() > hits);
+    }
+
+    @Test
+    void unknownUserTest() throws Exception {
+        mvc.perform(get("/bookings").header(USER_HEADER, userId + 1))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownUserOnBookingAndRequestEndpointsTest() throws Exception {
+        Long unknownId = userId + 1;
+        mvc.perform(post("/bookings").header(USER_HEADER, unknownId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\": 1}"))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/bookings/owner").header(USER_HEADER, unknownId))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/bookings/1").header(USER_HEADER, unknownId))
+                .andExpect(status().isNotFound());
+        mvc.perform(post("/requests").header(USER_HEADER, unknownId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"request\"}"))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/requests").header(USER_HEADER, unknownId))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/requests/all").header(USER_HEADER, unknownId))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/requests/1").header(USER_HEADER, unknownId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownUserCanSearchItemsTest() throws Exception {
+        Long unknownId = userId + 1;
+        mvc.perform(get("/items/search").param("text", "дрель").header(USER_HEADER, unknownId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/suggest").param("prefix", "дре").header(USER_HEADER, unknownId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items").header(USER_HEADER, unknownId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deletedUserIsEvictedTest() throws Exception {
+        mvc.perform(get("/bookings").header(USER_HEADER, userId))
+                .andExpect(status().isOk());
+
+        userService.deleteUser(userId);
+
+        mvc.perform(get("/bookings").header(USER_HEADER, userId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void missingHeaderTest() throws Exception {
+        mvc.perform(get("/bookings"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void brokenHeaderTest() throws Exception {
+        mvc.perform(get("/bookings").header(USER_HEADER, "user"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private int statements(Long userId) throws Exception {
+        try (SqlScope scope = SqlScope.open()) {
+            mvc.perform(get("/bookings").header(USER_HEADER, userId))
+                    .andExpect(status().isOk());
+            return scope.getStatements();
+        }
+    }
+}
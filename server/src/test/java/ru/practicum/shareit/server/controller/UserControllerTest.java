@@ -11,6 +11,7 @@ import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
 
 import org.springframework.http.MediaType;
+import ru.practicum.shareit.server.user.service.KnownUsers;
 import ru.practicum.shareit.server.user.service.UserServiceImpl;
 
 import java.nio.charset.StandardCharsets;
@@ -28,6 +29,9 @@ class UserControllerTest {
     @MockBean
     UserServiceImpl userService;
 
+    @MockBean
+    KnownUsers knownUsers;
+
     @Autowired
     MockMvc mockMvc;
 
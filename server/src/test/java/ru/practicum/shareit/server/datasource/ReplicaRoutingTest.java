@@ -0,0 +1,197 @@
+package ru.practicum.shareit.server.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.item.service.ItemBookingTimelines;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replicas[0].url=" + ReplicaRoutingTest.FIRST_REPLICA,
+        "shareit.datasource.replicas[0].username=test",
+        "shareit.datasource.replicas[0].password=test",
+        "shareit.datasource.replicas[1].url=" + ReplicaRoutingTest.SECOND_REPLICA,
+        "shareit.datasource.replicas[1].username=test",
+        "shareit.datasource.replicas[1].password=test",
+        "shareit.datasource.lag-query=select coalesce(max(seconds), 0) from replica_lag",
+        "shareit.datasource.lag-check=PT1H"
+})
+public class ReplicaRoutingTest {
+    static final String FIRST_REPLICA = "jdbc:h2:mem:first-replica;DB_CLOSE_DELAY=-1";
+    static final String SECOND_REPLICA = "jdbc:h2:mem:second-replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate firstReplica = replica(FIRST_REPLICA);
+    private static final JdbcTemplate secondReplica = replica(SECOND_REPLICA);
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ItemBookingTimelines timelines;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void migrateReplicas() {
+        for (String url : new String[]{FIRST_REPLICA, SECOND_REPLICA}) {
+            Flyway.configure()
+                    .dataSource(url, "test", "test")
+                    .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                    .load()
+                    .migrate();
+        }
+        firstReplica.execute("create table if not exists replica_lag (seconds double precision)");
+        secondReplica.execute("create table if not exists replica_lag (seconds double precision)");
+    }
+
+    @BeforeEach
+    void setUp() {
+        userService.createUser(UserDto.builder().name("primary").email("primary@yandex.ru").build());
+        firstReplica.update("insert into users (name, email) values ('first', 'first@yandex.ru')");
+        secondReplica.update("insert into users (name, email) values ('second', 'second@yandex.ru')");
+        monitor.check();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from users");
+        for (JdbcTemplate replica : new JdbcTemplate[]{firstReplica, secondReplica}) {
+            replica.update("delete from users");
+            replica.update("delete from replica_lag");
+        }
+        entityManagerFactory.getCache().evictAll();
+        timelines.invalidateAll();
+    }
+
+    @Test
+    void readOnlyTransactionsAreBalancedAcrossReplicasTest() {
+        assertEquals(Set.of("first", "second"), readUsers(4));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    @Test
+    void laggingReplicaIsSkippedTest() {
+        secondReplica.update("insert into replica_lag (seconds) values (60)");
+        monitor.check();
+
+        assertEquals(Set.of("first"), readUsers(3));
+        assertEquals(60.0, registry.get("shareit.datasource.replica.lag").tag("replica", "replica-1")
+                .gauge().value());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenAllReplicasLagTest() {
+        firstReplica.update("insert into replica_lag (seconds) values (60)");
+        secondReplica.update("insert into replica_lag (seconds) values (60)");
+        monitor.check();
+        double fallbacks = routeCount("primary", "true");
+
+        assertEquals("primary", readUsers());
+        assertEquals(fallbacks + 1, routeCount("primary", "true"));
+
+        firstReplica.update("delete from replica_lag");
+        monitor.check();
+
+        assertEquals("first", readUsers());
+    }
+
+    @Test
+    void replicaReadsDoNotFillEntityCacheTest() {
+        Long firstId = firstReplica.queryForObject("select id from users", Long.class);
+        Long secondId = secondReplica.queryForObject("select id from users", Long.class);
+
+        readUsers(2);
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, firstId));
+        assertFalse(entityManagerFactory.getCache().contains(User.class, secondId));
+    }
+
+    @Test
+    void replicaReadsLoadBookingTimelinesFromPrimaryTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long ownerId = jdbcTemplate.queryForObject("select id from users", Long.class);
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) " +
+                "values ('item', 'description', true, ?)", ownerId);
+        Long itemId = jdbcTemplate.queryForObject("select id from items", Long.class);
+        jdbcTemplate.update("insert into bookings (start_time, end_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, 'APPROVED')", start, start.plusDays(1), itemId, ownerId);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertNotNull(readOnly.execute(status -> timelines.get(itemId).next(LocalDateTime.now())));
+        assertNotNull(timelines.get(itemId).next(LocalDateTime.now()));
+    }
+
+    @Test
+    void routesAndPoolsArePublishedAsMetricsTest() {
+        double reads = routeCount("replica-0", "true") + routeCount("replica-1", "true");
+        double writes = routeCount("primary", "false");
+
+        readUsers();
+        userService.createUser(UserDto.builder().name("writer").email("writer@yandex.ru").build());
+
+        assertEquals(reads + 1, routeCount("replica-0", "true") + routeCount("replica-1", "true"));
+        assertEquals(writes + 1, routeCount("primary", "false"));
+        for (String pool : new String[]{"primary", "replica-0", "replica-1"}) {
+            assertNotNull(registry.get("hikaricp.connections.active").tag("pool", pool).gauge());
+        }
+    }
+
+    private String readUsers() {
+        Set<String> names = userService.getAllUsers().stream()
+                .map(UserDto::getName)
+                .collect(Collectors.toSet());
+        assertEquals(1, names.size());
+        return names.iterator().next();
+    }
+
+    private Set<String> readUsers(int times) {
+        return IntStream.range(0, times)
+                .mapToObj(i -> readUsers())
+                .collect(Collectors.toSet());
+    }
+
+    private double routeCount(String route, String readOnly) {
+        return registry.get("shareit.datasource.route").tag("route", route).tag("read_only", readOnly)
+                .functionCounter().count();
+    }
+
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "test", "test"));
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.item.search.BusyDays;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BusyDaysTest {
+    @Test
+    void mergesAdjacentAndOverlappingRuns() {
+        BusyDays days = BusyDays.EMPTY.with(10, 12).with(20, 22).with(13, 14).with(16, 19);
+
+        assertTrue(days.intersects(14, 14));
+        assertFalse(days.intersects(15, 15));
+        assertTrue(days.intersects(15, 16));
+        assertFalse(days.intersects(0, 9));
+        assertFalse(days.intersects(23, 40));
+        assertTrue(days.intersects(0, 40));
+    }
+
+    @Test
+    void dropBeforeForgetsPastRuns() {
+        BusyDays days = BusyDays.EMPTY.with(1, 3).with(5, 8).with(10, 11);
+
+        BusyDays current = days.dropBefore(6);
+
+        assertFalse(current.intersects(1, 4));
+        assertTrue(current.intersects(6, 6));
+        assertTrue(current.intersects(11, 20));
+        assertTrue(days.dropBefore(12).isEmpty());
+    }
+
+    @Test
+    void withDaysKeepsRunsOfBoth() {
+        BusyDays days = BusyDays.EMPTY.with(1, 3).with(10, 12)
+                .with(BusyDays.EMPTY.with(4, 5).with(20, 21));
+
+        assertTrue(days.intersects(5, 5));
+        assertTrue(days.intersects(20, 20));
+        assertFalse(days.intersects(6, 9));
+        assertFalse(days.intersects(13, 19));
+        assertTrue(BusyDays.EMPTY.with(BusyDays.EMPTY).isEmpty());
+    }
+
+    @Test
+    void matchesPlainBitsetOnRandomRuns() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            boolean[] busy = new boolean[200];
+            BusyDays days = BusyDays.EMPTY;
+            for (int i = random.nextInt(30); i >= 0; i--) {
+                int start = random.nextInt(190);
+                int end = start + random.nextInt(10);
+                days = days.with(start, end);
+                for (int day = start; day <= end; day++) {
+                    busy[day] = true;
+                }
+            }
+            for (int query = 0; query < 200; query++) {
+                int from = random.nextInt(200);
+                int to = Math.min(199, from + random.nextInt(15));
+                boolean expected = false;
+                for (int day = from; day <= to; day++) {
+                    expected |= busy[day];
+                }
+                assertEquals(expected, days.intersects(from, to));
+            }
+        }
+    }
+}
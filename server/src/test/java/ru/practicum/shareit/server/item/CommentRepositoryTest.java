@@ -3,6 +3,8 @@ package ru.practicum.shareit.server.item;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repo.CommentRepository;
@@ -11,8 +13,12 @@ import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repo.UserRepository;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class CommentRepositoryTest {
@@ -26,7 +32,7 @@ public class CommentRepositoryTest {
     private UserRepository userRepository;
 
     @Test
-    public void testFindCommentByItemId() {
+    public void testFindByItemIdNewestFirst() {
         User owner = new User(3L, "user", "user@yandex.ru");
         owner = userRepository.save(owner);
 
@@ -39,21 +45,54 @@ public class CommentRepositoryTest {
         Comment comment1 = new Comment(1L, "first comment", item, author);
         comment1 = commentRepository.save(comment1);
 
-        Comment comment2 = new Comment(2L, "second comment", item, author);
+        User secondAuthor = userRepository.save(new User(5L, "user3", "user3@yandex.ru"));
+
+        Comment comment2 = new Comment(2L, "second comment", item, secondAuthor);
         comment2 = commentRepository.save(comment2);
 
-        List<Comment> foundComments = commentRepository.findCommentByItemId(item.getId());
+        List<Comment> foundComments = commentRepository.findByItemIdOrderByIdDesc(item.getId(),
+                PageRequest.of(0, 10));
 
         assertEquals(2, foundComments.size());
 
-        assertEquals(foundComments.get(0).getId(), comment1.getId());
-        assertEquals(foundComments.get(0).getText(), comment1.getText());
-        assertEquals(foundComments.get(0).getItem().getId(), comment1.getItem().getId());
-        assertEquals(foundComments.get(0).getAuthor().getId(), comment1.getAuthor().getId());
+        assertEquals(foundComments.get(1).getId(), comment1.getId());
+        assertEquals(foundComments.get(1).getText(), comment1.getText());
+        assertEquals(foundComments.get(1).getItem().getId(), comment1.getItem().getId());
+        assertEquals(foundComments.get(1).getAuthor().getId(), comment1.getAuthor().getId());
+
+        assertEquals(foundComments.get(0).getId(), comment2.getId());
+        assertEquals(foundComments.get(0).getText(), comment2.getText());
+        assertEquals(foundComments.get(0).getItem().getId(), comment2.getItem().getId());
+        assertEquals(foundComments.get(0).getAuthor().getId(), comment2.getAuthor().getId());
+
+        assertEquals(List.of(comment1.getId()), commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(
+                item.getId(), comment2.getId(), PageRequest.of(0, 10)).stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testExistsByItemIdAndAuthorId() {
+        User owner = userRepository.save(new User(null, "owner", "owner@yandex.ru"));
+        User author = userRepository.save(new User(null, "author", "author@yandex.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+
+        assertFalse(commentRepository.existsByItemIdAndAuthorId(item.getId(), author.getId()));
+
+        commentRepository.save(new Comment(null, "comment", item, author));
+
+        assertTrue(commentRepository.existsByItemIdAndAuthorId(item.getId(), author.getId()));
+        assertFalse(commentRepository.existsByItemIdAndAuthorId(item.getId(), owner.getId()));
+    }
+
+    @Test
+    public void testSecondCommentOfAuthorRejected() {
+        User owner = userRepository.save(new User(null, "owner", "owner@yandex.ru"));
+        User author = userRepository.save(new User(null, "author", "author@yandex.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        commentRepository.saveAndFlush(new Comment(null, "comment", item, author));
 
-        assertEquals(foundComments.get(1).getId(), comment2.getId());
-        assertEquals(foundComments.get(1).getText(), comment2.getText());
-        assertEquals(foundComments.get(1).getItem().getId(), comment2.getItem().getId());
-        assertEquals(foundComments.get(1).getAuthor().getId(), comment2.getAuthor().getId());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> commentRepository.saveAndFlush(new Comment(null, "again", item, author)));
     }
 }
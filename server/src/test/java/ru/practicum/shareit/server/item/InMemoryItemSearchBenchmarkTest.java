@@ -0,0 +1,53 @@
+package ru.practicum.shareit.server.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.item.search.ItemSearchIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+public class InMemoryItemSearchBenchmarkTest {
+    private static final int ITEMS = 1_000_000;
+    private static final int RUNS = 5_000;
+    private static final int ROUNDS = 3;
+    private static final String[] NAMES = {"Дрель", "Отвертка", "Пила", "Молоток", "Лестница", "Палатка",
+            "Велосипед", "Перфоратор", "Шуруповерт", "Рюкзак"};
+    private static final String[] ADJECTIVES = {"аккумуляторная", "новая", "складная", "туристическая", "мощная"};
+
+    @Test
+    void searchStaysUnderMillisecondOnMillionItems() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        Random random = new Random(42);
+        for (int i = 0; i < ITEMS; i++) {
+            index.put((long) i, NAMES[i % NAMES.length] + " " + i,
+                    "Описание " + Integer.toHexString(random.nextInt()) + " " + ADJECTIVES[i % ADJECTIVES.length],
+                    i % 7 != 0);
+        }
+        String[] queries = {"дрель", "перфоратор 999997", "складная пила", "палатка туристическая", "отвертка"};
+        assertEquals(20, index.search("дрель", 0, 20).size());
+
+        long p50 = Long.MAX_VALUE;
+        long p99 = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long[] timings = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                index.search(queries[i % queries.length], 0, 20);
+                timings[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(timings);
+            p50 = Math.min(p50, timings[RUNS / 2]);
+            p99 = Math.min(p99, timings[RUNS * 99 / 100]);
+        }
+
+        log.info("Поиск в памяти по {} вещам: p50 {} us, p99 {} us", ITEMS, p50 / 1_000, p99 / 1_000);
+        assertTrue(p99 < 1_000_000, "p99 поиска больше миллисекунды");
+    }
+}
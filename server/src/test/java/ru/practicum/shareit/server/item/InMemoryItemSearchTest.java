@@ -0,0 +1,114 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.search.engine=memory")
+public class InMemoryItemSearchTest {
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void createdAndUpdatedItemsAreSearchable() {
+        Long userId = userService.createUser(UserDto.builder().name("user").email("user@yandex.ru").build()).getId();
+        ItemDto drill = itemService.createItem(
+                ItemDto.builder().name("Дрель").description("Простая дрель").available(true).build(), userId);
+        itemService.createItem(ItemDto.builder().name("Пила").description("Ручная").available(true).build(), userId);
+
+        assertEquals(List.of(drill.getId()), search("дрель"));
+
+        itemService.updateItem(drill.getId(), ItemDto.builder().available(false).build(), userId);
+        assertTrue(search("дрель").isEmpty());
+
+        itemService.updateItem(drill.getId(), ItemDto.builder().name("Перфоратор").available(true).build(), userId);
+        assertEquals(List.of(drill.getId()), search("перфоратор"));
+        assertEquals(List.of(drill.getId()), search("дрель"));
+    }
+
+    @Test
+    void rolledBackUpdateIsNotIndexed() {
+        Long userId = userService.createUser(UserDto.builder().name("user").email("user@yandex.ru").build()).getId();
+        ItemDto drill = itemService.createItem(
+                ItemDto.builder().name("Дрель").description("Простая").available(true).build(), userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.updateItem(drill.getId(), ItemDto.builder().name("Перфоратор").available(true).build(), userId);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(search("перфоратор").isEmpty());
+        assertEquals(List.of(drill.getId()), search("дрель"));
+    }
+
+    @Test
+    void suggestionsFollowCreatedAndRenamedItems() {
+        Long userId = userService.createUser(UserDto.builder().name("user").email("user@yandex.ru").build()).getId();
+        ItemDto drill = itemService.createItem(
+                ItemDto.builder().name("Дрель Bosch").description("Простая").available(true).build(), userId);
+
+        assertEquals(List.of(drill.getId()), suggest("дре"));
+        assertEquals(List.of(drill.getId()), suggest("bosh"));
+
+        itemService.updateItem(drill.getId(), ItemDto.builder().name("Перфоратор").build(), userId);
+        assertTrue(suggest("дре").isEmpty());
+        assertEquals(List.of(drill.getId()), suggest("перф"));
+    }
+
+    @Test
+    void deletedOwnerItemsLeaveSearchAndSuggestions() {
+        Long userId = userService.createUser(UserDto.builder().name("user").email("user@yandex.ru").build()).getId();
+        ItemDto ladder = itemService.createItem(
+                ItemDto.builder().name("Стремянка").description("Алюминиевая").available(true).build(), userId);
+        assertEquals(List.of(ladder.getId()), suggest("стрем"));
+
+        userService.deleteUser(userId);
+
+        assertTrue(search("стремянка").isEmpty());
+        assertTrue(suggest("стрем").isEmpty());
+    }
+
+    private List<Long> suggest(String prefix) {
+        return itemService.suggestItems(prefix, 10).stream()
+                .map(ItemSuggestionDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> search(String text) {
+        return itemService.searchItems(text, 0, 10).stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
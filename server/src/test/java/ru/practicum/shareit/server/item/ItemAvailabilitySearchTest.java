@@ -0,0 +1,113 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.booking.dto.BookingDtoReceived;
+import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+public class ItemAvailabilitySearchTest {
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void searchSkipsItemsBookedInPeriod() {
+        Long ownerId = createUser("owner");
+        Long bookerId = createUser("booker");
+        Long first = createDrill(ownerId);
+        Long second = createDrill(ownerId);
+        Long third = createDrill(ownerId);
+        LocalDate june12 = LocalDate.now().plusMonths(1).withDayOfMonth(12);
+
+        book(first, june12.minusDays(2), june12, bookerId);
+        Long rejected = book(second, june12.plusDays(3), june12.plusDays(5), bookerId);
+        book(third, june12.plusDays(4), june12.plusDays(6), bookerId);
+        bookingService.bookingConfirmation(rejected, false, ownerId);
+
+        assertEquals(List.of(second), ids(itemService.searchItemPage("дрель", 0, 10, null,
+                june12, june12.plusDays(4))));
+        assertEquals(List.of(first, second, third), ids(itemService.searchItemPage("дрель", 0, 10, null,
+                june12.plusDays(1), june12.plusDays(2))));
+        assertEquals(List.of(first, second), ids(itemService.searchItemPage("дрель", 0, 10, null,
+                june12.plusDays(4), june12.plusDays(4))));
+    }
+
+    @Test
+    void filteredSearchPagesByOffsetAndCursor() {
+        Long ownerId = createUser("owner");
+        Long bookerId = createUser("booker");
+        LocalDate day = LocalDate.now().plusDays(10);
+        Long[] items = new Long[6];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = createDrill(ownerId);
+            if (i % 2 == 0) {
+                book(items[i], day, day.plusDays(1), bookerId);
+            }
+        }
+
+        CursorPage<ItemDto> firstPage = itemService.searchItemPage("дрель", 0, 2, null, day, day);
+        CursorPage<ItemDto> secondPage = itemService.searchItemPage("дрель", 0, 2, firstPage.getNext(), day, day);
+
+        assertEquals(List.of(items[1], items[3]), ids(firstPage));
+        assertEquals(List.of(items[5]), ids(secondPage));
+        assertNull(secondPage.getNext());
+        assertEquals(List.of(items[3], items[5]), ids(itemService.searchItemPage("дрель", 1, 2, null, day, day)));
+    }
+
+    private Long book(Long itemId, LocalDate from, LocalDate to, Long bookerId) {
+        return bookingService.createBooking(BookingDtoReceived.builder()
+                .itemId(itemId)
+                .start(from.atTime(10, 0))
+                .end(to.atTime(18, 0))
+                .build(), bookerId).getId();
+    }
+
+    private Long createUser(String name) {
+        return userService.createUser(UserDto.builder().name(name).email(name + "@yandex.ru").build()).getId();
+    }
+
+    private Long createDrill(Long ownerId) {
+        return itemService.createItem(
+                ItemDto.builder().name("Дрель").description("Ударная").available(true).build(), ownerId).getId();
+    }
+
+    private List<Long> ids(CursorPage<ItemDto> page) {
+        return page.getItems().stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
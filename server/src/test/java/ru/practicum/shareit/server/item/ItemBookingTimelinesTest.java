@@ -0,0 +1,98 @@
+package ru.practicum.shareit.server.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.server.booking.model.BookingView;
+import ru.practicum.shareit.server.booking.repo.BookingRepository;
+import ru.practicum.shareit.server.datasource.PrimaryReads;
+import ru.practicum.shareit.server.item.service.ItemBookingTimeline;
+import ru.practicum.shareit.server.item.service.ItemBookingTimelines;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.server.booking.model.Status.APPROVED;
+
+public class ItemBookingTimelinesTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class), Optional.empty());
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @Test
+    void lastAndNextComeFromTimelineWithoutDatabaseOnHit() {
+        List<BookingView> bookings = List.of(
+                bookingView(1L, 1L, now.minusDays(5), now.minusDays(4)),
+                bookingView(2L, 1L, now.minusDays(3), now.minusDays(2)),
+                bookingView(3L, 1L, now.minusHours(1), now.plusHours(1)),
+                bookingView(4L, 1L, now.plusDays(1), now.plusDays(2)),
+                bookingView(5L, 1L, now.plusDays(3), now.plusDays(4)));
+        when(bookingRepository.findBookingViewsByItemIdInAndStatus(List.of(1L, 2L), APPROVED)).thenReturn(bookings);
+        ItemBookingTimelines timelines = new ItemBookingTimelines(bookingRepository, primaryReads, registry, 10);
+
+        Map<Long, ItemBookingTimeline> loaded = timelines.getAll(List.of(1L, 2L));
+        ItemBookingTimeline timeline = timelines.get(1L);
+
+        assertEquals(3L, timeline.lastStarted(now).getId());
+        assertEquals(2L, timeline.lastEnded(now).getId());
+        assertEquals(4L, timeline.next(now).getId());
+        assertNull(loaded.get(2L).lastStarted(now));
+        assertNull(loaded.get(2L).next(now));
+        verify(bookingRepository, times(1)).findBookingViewsByItemIdInAndStatus(any(), any());
+        assertEquals(1, registry.counter("shareit.booking.timeline.hits").count());
+        assertEquals(2, registry.counter("shareit.booking.timeline.misses").count());
+        assertEquals(1.0 / 3, registry.get("shareit.booking.timeline.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void leastRecentlyUsedItemIsEvicted() {
+        when(bookingRepository.findBookingViewsByItemIdInAndStatus(any(), any())).thenReturn(List.of());
+        ItemBookingTimelines timelines = new ItemBookingTimelines(bookingRepository, primaryReads, registry, 2);
+
+        timelines.get(1L);
+        timelines.get(2L);
+        timelines.get(1L);
+        timelines.get(3L);
+        timelines.get(1L);
+        timelines.get(2L);
+
+        assertEquals(2, registry.counter("shareit.booking.timeline.evictions").count());
+        assertEquals(2, registry.counter("shareit.booking.timeline.hits").count());
+        assertEquals(2, registry.get("shareit.booking.timeline.size").gauge().value());
+    }
+
+    @Test
+    void invalidatedItemIsReloaded() {
+        when(bookingRepository.findBookingViewsByItemIdInAndStatus(List.of(1L), APPROVED))
+                .thenReturn(List.of())
+                .thenReturn(List.of(bookingView(1L, 1L, now.plusDays(1), now.plusDays(2))));
+        ItemBookingTimelines timelines = new ItemBookingTimelines(bookingRepository, primaryReads, registry, 10);
+
+        assertNull(timelines.get(1L).next(now));
+        timelines.invalidate(1L);
+
+        assertEquals(1L, timelines.get(1L).next(now).getId());
+        assertEquals(1L, timelines.get(1L).next(now).getId());
+        verify(bookingRepository, times(2)).findBookingViewsByItemIdInAndStatus(List.of(1L), APPROVED);
+    }
+
+    private BookingView bookingView(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingView view = mock(BookingView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getItemId()).thenReturn(itemId);
+        when(view.getStart()).thenReturn(start);
+        when(view.getEnd()).thenReturn(end);
+        when(view.getStatus()).thenReturn(APPROVED);
+        return view;
+    }
+}
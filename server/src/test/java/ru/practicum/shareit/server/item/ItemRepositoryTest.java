@@ -3,6 +3,7 @@ package ru.practicum.shareit.server.item;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repo.ItemRepository;
 import ru.practicum.shareit.server.request.model.ItemRequest;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.server.user.repo.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -71,4 +73,44 @@ public class ItemRepositoryTest {
         assertEquals(foundItems.get(2).getDescription(), item3.getDescription());
         assertEquals(foundItems.get(2).getOwner().getId(), item3.getOwner().getId());
     }
+
+    @Test
+    public void testSearchAfterSkipsUnavailableAndSeenItems() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@yandex.ru"));
+
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+        itemRepository.save(new Item(null, "Дрель+", "Аккумуляторная дрель", false, owner, null));
+        Item screwdriver = itemRepository.save(new Item(null, "Отвертка", "Дрель-шуруповерт", true, owner, null));
+
+        List<Long> firstPage = itemRepository.search("дрель", PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), firstPage);
+
+        List<Long> nextPage = itemRepository.searchAfter("дрель", drill.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(screwdriver.getId()), nextPage);
+    }
+
+    @Test
+    public void testFindItemsByRequestIdIn() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@yandex.ru"));
+        User requestor = userRepository.save(new User(null, "Requestor", "requestor@yandex.ru"));
+
+        ItemRequest first = requestRepository.save(new ItemRequest(null, "first", requestor, LocalDateTime.now()));
+        ItemRequest second = requestRepository.save(new ItemRequest(null, "second", requestor, LocalDateTime.now()));
+        ItemRequest other = requestRepository.save(new ItemRequest(null, "other", requestor, LocalDateTime.now()));
+
+        Item firstAnswer = itemRepository.save(new Item(null, "item 1", "answer", true, owner, first));
+        Item secondAnswer = itemRepository.save(new Item(null, "item 2", "answer", true, owner, second));
+        itemRepository.save(new Item(null, "item 3", "answer", true, owner, other));
+        itemRepository.save(new Item(null, "item 4", "no request", true, owner, null));
+
+        List<Long> found = itemRepository.findItemsByRequestIdIn(List.of(first.getId(), second.getId()))
+                .stream()
+                .map(Item::getId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(firstAnswer.getId(), secondAnswer.getId()), found);
+    }
 }
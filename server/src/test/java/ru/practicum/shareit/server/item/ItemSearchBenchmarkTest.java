@@ -0,0 +1,96 @@
+package ru.practicum.shareit.server.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.search.ItemSearchHit;
+import ru.practicum.shareit.server.item.search.JpaItemSearchEngine;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "SHAREIT_BENCHMARK_DB_URL", matches = ".+")
+@SpringBootTest(properties = {"shareit.search.engine=postgres", "spring.jpa.properties.hibernate.show_sql=false"})
+public class ItemSearchBenchmarkTest {
+    private static final int ITEMS = 1_000_000;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private ItemSearchEngine searchEngine;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> System.getenv("SHAREIT_BENCHMARK_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("SHAREIT_BENCHMARK_DB_USER",
+                "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("SHAREIT_BENCHMARK_DB_PASSWORD",
+                "iamroot"));
+    }
+
+    @Test
+    void fullTextSearchBeatsLikeScanOnMillionItems() {
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@bench.ru')");
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) " +
+                "select (array['Дрель', 'Отвертка', 'Пила', 'Молоток', 'Лестница', 'Палатка', 'Велосипед', " +
+                "'Перфоратор', 'Шуруповерт', 'Рюкзак'])[1 + g % 10] || ' ' || g, " +
+                "'Описание ' || md5(g::text) || ' ' || (array['аккумуляторная', 'новая', 'складная', " +
+                "'туристическая', 'мощная'])[1 + g % 5], " +
+                "g % 7 <> 0, (select id from users where email = 'owner@bench.ru') " +
+                "from generate_series(1, ?) g", ITEMS);
+        jdbcTemplate.execute("analyze items");
+        ItemSearchEngine likeScan = new JpaItemSearchEngine(itemRepository);
+
+        List<ItemSearchHit> hits = searchEngine.search("дрель", OffsetPageRequest.of(0, 20));
+        assertEquals(20, hits.size());
+        List<Long> ids = hits.stream().map(ItemSearchHit::getId).collect(Collectors.toList());
+        assertFalse(jdbcTemplate.queryForList("select id from items where id in (" +
+                ids.stream().map(String::valueOf).collect(Collectors.joining(",")) + ") " +
+                "and (not is_available or name not like 'Дрель%')", Long.class).iterator().hasNext());
+        assertEquals(searchEngine.search("дрель", OffsetPageRequest.of(20, 20)),
+                searchEngine.searchAfter("дрель", hits.get(hits.size() - 1).toCursor(), 20));
+
+        long fullText = medianNanos(searchEngine, "дрель");
+        long like = medianNanos(likeScan, "дрель");
+        long fullTextRare = medianNanos(searchEngine, "перфоратор 999997");
+        long likeRare = medianNanos(likeScan, "перфоратор 999997");
+
+        log.info("Поиск по {} вещам, p50: tsvector {} us / like {} us; редкий запрос: tsvector {} us / like {} us",
+                ITEMS, fullText / 1_000, like / 1_000, fullTextRare / 1_000, likeRare / 1_000);
+        assertTrue(fullTextRare < likeRare, "Полнотекстовый поиск медленнее полного сканирования");
+    }
+
+    private long medianNanos(ItemSearchEngine engine, String text) {
+        engine.search(text, OffsetPageRequest.of(0, 20));
+        long[] timings = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            engine.search(text, OffsetPageRequest.of(0, 20));
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.item.search.ItemSearchHit;
+import ru.practicum.shareit.server.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemSearchIndexTest {
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @Test
+    void searchMatchesAllTermsIgnoringCase() {
+        index.put(1L, "Дрель", "Простая дрель", true);
+        index.put(2L, "Отвертка", "Аккумуляторная ДРЕЛЬ-шуруповерт", true);
+        index.put(3L, "Пила", "Ручная", true);
+
+        assertEquals(List.of(1L, 2L), ids(index.search("дрель", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("аккумуляторная дрель", 0, 10)));
+        assertTrue(index.search("дрель молоток", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchMatchesWordPrefixes() {
+        index.put(1L, "Дрель", "Простая", true);
+        index.put(2L, "Дрели", "Набор из двух", true);
+        index.put(3L, "Пила", "Ручная", true);
+
+        assertEquals(List.of(1L, 2L), ids(index.search("дрел", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("дре наб", 0, 10)));
+        assertTrue(index.search("дрелька", 0, 10).isEmpty());
+    }
+
+    @Test
+    void removeDropsItemFromResults() {
+        index.put(1L, "Дрель", "Простая дрель", true);
+        index.put(2L, "Дрель", "Ударная", true);
+
+        index.remove(1L);
+        index.remove(3L);
+
+        assertEquals(List.of(2L), ids(index.search("дрель", 0, 10)));
+        assertTrue(index.search("простая", 0, 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void searchRanksNameMatchesFirst() {
+        index.put(1L, "Палатка", "Большая, подойдет для похода с ночевкой", true);
+        index.put(2L, "Рюкзак", "Влезает палатка", true);
+
+        assertEquals(List.of(1L, 2L), ids(index.search("палатка", 0, 10)));
+    }
+
+    @Test
+    void putReplacesTextAndAvailability() {
+        index.put(1L, "Дрель", "Простая дрель", true);
+        index.put(1L, "Перфоратор", "Мощный", true);
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("перфоратор", 0, 10)));
+
+        index.put(1L, "Перфоратор", "Мощный", false);
+        assertTrue(index.search("перфоратор", 0, 10).isEmpty());
+
+        index.put(1L, "Перфоратор", "Мощный", true);
+        assertEquals(List.of(1L), ids(index.search("перфоратор", 0, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void searchAfterContinuesFromLastHit() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Лестница " + id, "Лестница стремянка", true);
+        }
+
+        List<ItemSearchHit> first = index.search("лестница", 0, 2);
+        ItemSearchHit last = first.get(first.size() - 1);
+        List<ItemSearchHit> next = index.searchAfter("лестница", last.getScore(), last.getId(), 10);
+
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertEquals(List.of(3L, 4L, 5L), ids(next));
+        assertEquals(ids(index.search("лестница", 2, 10)), ids(next));
+    }
+
+    @Test
+    void compactionKeepsResults() {
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1; id <= 1000; id++) {
+                index.put(id, "Велосипед " + round, "Горный", id % 2 == 0);
+            }
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(500, index.search("велосипед", 0, 1000).size());
+        assertEquals(List.of(2L, 4L), ids(index.search("горный велосипед", 0, 2)));
+        assertTrue(index.search("велосипед 3", 0, 10).isEmpty());
+    }
+
+    @Test
+    void prunedTopHitsMatchFullRanking() {
+        String[] words = {"дрель", "пила", "молоток", "новая", "складная", "мощная", "старая"};
+        Random random = new Random(7);
+        for (long id = 1; id <= 20_000; id++) {
+            index.put(id, words[random.nextInt(3)] + " " + id, randomText(words, random), random.nextInt(10) > 0);
+        }
+        String[] queries = {"дрель", "пила новая", "складная мощная", "молоток старая новая", "дрель 17"};
+        for (int round = 0; round < 2; round++) {
+            for (String query : queries) {
+                List<ItemSearchHit> all = index.search(query, 0, 20_000);
+                assertEquals(all.subList(0, Math.min(10, all.size())), index.search(query, 0, 10));
+                assertEquals(all.subList(Math.min(10, all.size()), Math.min(30, all.size())),
+                        index.search(query, 10, 20));
+            }
+            for (long id = 1; id <= 20_000; id += 3) {
+                index.put(id, words[random.nextInt(3)] + " " + id, randomText(words, random), random.nextBoolean());
+            }
+        }
+    }
+
+    private String randomText(String[] words, Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(6); i >= 0; i--) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private List<Long> ids(List<ItemSearchHit> hits) {
+        return hits.stream().map(ItemSearchHit::getId).collect(Collectors.toList());
+    }
+}
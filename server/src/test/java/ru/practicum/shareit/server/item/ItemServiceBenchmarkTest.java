@@ -0,0 +1,116 @@
+package ru.practicum.shareit.server.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+public class ItemServiceBenchmarkTest {
+    private static final int PAGE_SIZE = 20;
+    private static final int OTHER_ITEMS = 1_000;
+    private static final int BOOKINGS = 200_000;
+    private static final int RUNS = 50;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void viewAllItemsDoesNotScaleWithTotalBookings() {
+        long ownerId = insertUser("owner@bench.ru");
+        long otherId = insertUser("other@bench.ru");
+        List<Long> pageItems = insertItems(ownerId, PAGE_SIZE);
+        List<Long> otherItems = insertItems(otherId, OTHER_ITEMS);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> pageBookings = new ArrayList<>();
+        for (Long itemId : pageItems) {
+            pageBookings.add(booking(now.minusDays(2), now.minusDays(1), itemId, otherId));
+            pageBookings.add(booking(now.plusDays(1), now.plusDays(2), itemId, otherId));
+        }
+        insertBookings(pageBookings);
+
+        long small = medianNanos(ownerId);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(i % 2 == 0 ? -(i + 48) : i + 48);
+            bookings.add(booking(start, start.plusHours(1), otherItems.get(i % OTHER_ITEMS), otherId));
+        }
+        insertBookings(bookings);
+
+        long large = medianNanos(ownerId);
+
+        log.info("viewAllItems p50: {} us with {} bookings, {} us with {} bookings",
+                small / 1_000, pageBookings.size(), large / 1_000, pageBookings.size() + BOOKINGS);
+        assertTrue(large < small * 5, "Время ответа выросло вместе с общим числом бронирований");
+    }
+
+    private long medianNanos(long ownerId) {
+        for (int i = 0; i < RUNS; i++) {
+            assertEquals(PAGE_SIZE, itemService.viewAllItems(ownerId, 0, PAGE_SIZE).size());
+        }
+        long[] timings = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            itemService.viewAllItems(ownerId, 0, PAGE_SIZE);
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+
+    private long insertUser(String email) {
+        jdbcTemplate.update("insert into users (name, email) values (?, ?)", email, email);
+        return jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, email);
+    }
+
+    private List<Long> insertItems(long ownerId, int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"item " + i, "description " + i, true, ownerId});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id) values (?, ?, ?, ?)",
+                rows);
+        return jdbcTemplate.queryForList("select id from items where owner_id = ? order by id", Long.class, ownerId);
+    }
+
+    private Object[] booking(LocalDateTime start, LocalDateTime end, Long itemId, Long bookerId) {
+        return new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId, "APPROVED"};
+    }
+
+    private void insertBookings(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into bookings (start_time, end_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -4,20 +4,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingView;
 import ru.practicum.shareit.server.booking.repo.BookingRepository;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
 import ru.practicum.shareit.server.exception.InvalidException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.dto.TimeSlotDto;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.model.ItemView;
 import ru.practicum.shareit.server.item.repo.CommentRepository;
 import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemAvailabilityIndex;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.item.search.ItemSearchHit;
+import ru.practicum.shareit.server.item.search.ItemSuggester;
+import ru.practicum.shareit.server.item.service.ItemBookingTimeline;
+import ru.practicum.shareit.server.item.service.ItemBookingTimelines;
 import ru.practicum.shareit.server.item.service.ItemServiceImpl;
 import ru.practicum.shareit.server.item.validator.ItemValidator;
+import ru.practicum.shareit.server.pagination.Cursor;
+import ru.practicum.shareit.server.pagination.CursorPage;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.request.repo.RequestRepository;
 import ru.practicum.shareit.server.user.model.User;
@@ -25,13 +38,18 @@ import ru.practicum.shareit.server.user.repo.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.server.booking.model.Status.APPROVED;
+import static ru.practicum.shareit.server.booking.model.Status.WAITING;
 
 @ExtendWith(SpringExtension.class)
 public class ItemServiceITest {
@@ -57,6 +75,18 @@ public class ItemServiceITest {
     @Mock
     private ItemValidator validator;
 
+    @Mock
+    private ItemSearchEngine searchEngine;
+
+    @Mock
+    private ItemSuggester suggester;
+
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemBookingTimelines timelines;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -77,14 +107,14 @@ public class ItemServiceITest {
                 .requestId(itemRequest.getId())
                 .build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
         when(requestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.save(any(Item.class))).thenReturn(createItemWithId(itemDto, 1L));
 
         ItemDto result = itemService.createItem(itemDto, user.getId());
 
         verify(validator).validate(itemDto, user.getId());
-        verify(userRepository).findById(user.getId());
+        verify(userRepository).getReferenceById(user.getId());
         verify(requestRepository).findById(itemRequest.getId());
         verify(itemRepository).save(any(Item.class));
 
@@ -97,6 +127,16 @@ public class ItemServiceITest {
         assertEquals(itemDto.getRequestId(), result.getRequestId());
     }
 
+    @Test
+    void suggestItemsTest() {
+        List<ItemSuggestionDto> suggestions = List.of(ItemSuggestionDto.builder().id(1L).name("Дрель").build());
+        when(suggester.suggest("дре", SIZE)).thenReturn(suggestions);
+
+        assertEquals(suggestions, itemService.suggestItems("дре", SIZE));
+        assertTrue(itemService.suggestItems(" ", SIZE).isEmpty());
+        verify(suggester, times(1)).suggest(anyString(), anyInt());
+    }
+
     @Test
     void updateItemTest() {
         User user = createUser(1L, "User", "user@yandex.ru");
@@ -108,21 +148,47 @@ public class ItemServiceITest {
                 .available(true)
                 .build();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithOwnerById(item.getId())).thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemDto updatedItem = itemService.updateItem(item.getId(), itemDto, user.getId());
 
-        verify(itemRepository).findById(item.getId());
+        verify(itemRepository).findWithOwnerById(item.getId());
         verify(itemRepository).save(any(Item.class));
 
         assertEquals(itemDto.getId(), updatedItem.getId());
         assertEquals(itemDto.getName(), updatedItem.getName());
         assertEquals(itemDto.getDescription(), updatedItem.getDescription());
         assertEquals(itemDto.getAvailable(), updatedItem.getAvailable());
+        assertEquals(user.getId(), updatedItem.getOwner().getId());
     }
 
 
+    @Test
+    void getItemByIdReadsLastAndNextBookingsTest() {
+        User user = createUser(1L, "User", "user@yandex.ru");
+        User booker = createUser(3L, "Booker", "booker@yandex.ru");
+        Item item = createItem(2L, "Item", "Description", true, user, new ItemRequest());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking last = Booking.builder().id(5L).start(now.minusDays(2)).end(now.minusDays(1))
+                .item(item).booker(booker).status(APPROVED).build();
+        Booking next = Booking.builder().id(6L).start(now.plusDays(1)).end(now.plusDays(2))
+                .item(item).booker(booker).status(APPROVED).build();
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusIsOrderByStartDesc(eq(item.getId()),
+                any(LocalDateTime.class), eq(APPROVED))).thenReturn(last);
+        when(bookingRepository.findTopByItemIdAndStartIsAfterAndStatusIsOrderByStartAsc(eq(item.getId()),
+                any(LocalDateTime.class), eq(APPROVED))).thenReturn(next);
+
+        ItemDtoOwner retrievedItem = itemService.getItemById(item.getId(), user.getId());
+
+        assertEquals(5L, retrievedItem.getLastBooking().getId());
+        assertEquals(3L, retrievedItem.getLastBooking().getBookerId());
+        assertEquals(6L, retrievedItem.getNextBooking().getId());
+        assertEquals(now.plusDays(1), retrievedItem.getNextBooking().getStart());
+    }
+
     @Test
     void getItemByIdTest() {
         User user = createUser(1L, "User", "user@yandex.ru");
@@ -167,19 +233,19 @@ public class ItemServiceITest {
         Item item = createItem(1L, "Item", "Description", true, user, new ItemRequest());
 
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
 
         CommentDto commentDto = CommentDto.builder()
                 .text("Comment")
                 .build();
 
-        DataNotFoundException exception = assertThrows(DataNotFoundException.class,
+        InvalidException exception = assertThrows(InvalidException.class,
                 () -> itemService.commentItem(item.getId(), commentDto, user.getId()));
 
-        assertEquals("Пользователь с айди 1 не найден", exception.getMessage());
+        assertEquals("Пользователь с айди 1 не бронировал вещь с айди 1", exception.getMessage());
 
         verify(itemRepository).findById(item.getId());
-        verify(userRepository).findById(user.getId());
+        verify(userRepository, never()).findById(any());
         verifyNoInteractions(commentRepository);
     }
 
@@ -192,11 +258,10 @@ public class ItemServiceITest {
                 .text("Comment")
                 .build();
 
-        List<Booking> bookings = new ArrayList<>();
-
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingsByBookerIdAndItemId(user.getId(), item.getId())).thenReturn(bookings);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(user.getId()), eq(item.getId()),
+                eq(APPROVED), any(LocalDateTime.class))).thenReturn(false);
 
         InvalidException exception = assertThrows(InvalidException.class,
                 () -> itemService.commentItem(item.getId(), commentDto, user.getId()));
@@ -204,16 +269,14 @@ public class ItemServiceITest {
         assertEquals("Пользователь с айди 1 не бронировал вещь с айди 1", exception.getMessage());
 
         verify(itemRepository).findById(item.getId());
-        verify(userRepository).findById(user.getId());
-        verify(bookingRepository).findBookingsByBookerIdAndItemId(user.getId(), item.getId());
+        verify(userRepository).getReferenceById(user.getId());
+        verify(bookingRepository).existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(user.getId()),
+                eq(item.getId()), eq(APPROVED), any(LocalDateTime.class));
         verifyNoInteractions(commentRepository);
     }
 
     @Test
     void viewAllItemsTest() {
-        List<Booking> lastBookings = new ArrayList<>();
-        List<Booking> nextBookings = new ArrayList<>();
-
         User owner = createUser(1L, "User", "user@yandex.ru");
         Item item1 = createItem(1L, "Item1", "Description1", true,
                 owner, new ItemRequest());
@@ -224,19 +287,15 @@ public class ItemServiceITest {
         items.add(item1);
         items.add(item2);
 
-        when(bookingRepository.findBookingsByStatusAndEndIsBeforeOrderByStartDesc(eq(APPROVED),
-                any(LocalDateTime.class))).thenReturn(lastBookings);
-        when(bookingRepository.findBookingsByStatusAndStartIsAfterOrderByStartAsc(eq(APPROVED),
-                any(LocalDateTime.class))).thenReturn(nextBookings);
-        when(itemRepository.findByOwnerIdOrderByIdAsc(eq(1L), any(PageRequest.class))).thenReturn(items);
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(itemRepository.findByOwnerIdOrderByIdAsc(eq(1L), any(OffsetPageRequest.class))).thenReturn(items);
 
         List<ItemDtoOwner> result = itemService.viewAllItems(owner.getId(), FROM, SIZE);
 
-        verify(bookingRepository).findBookingsByStatusAndEndIsBeforeOrderByStartDesc(eq(APPROVED),
-                any(LocalDateTime.class));
-        verify(bookingRepository).findBookingsByStatusAndStartIsAfterOrderByStartAsc(eq(APPROVED),
-                any(LocalDateTime.class));
-        verify(itemRepository).findByOwnerIdOrderByIdAsc(eq(1L), any(PageRequest.class));
+        verify(bookingRepository).findLastAndNextBookings(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(itemRepository).findByOwnerIdOrderByIdAsc(eq(1L), any(OffsetPageRequest.class));
+        verifyNoMoreInteractions(bookingRepository);
 
         assertEquals(2, result.size());
         assertEquals(item1.getId(), result.get(0).getId());
@@ -252,6 +311,39 @@ public class ItemServiceITest {
         assertNull(result.get(1).getNextBooking());
     }
 
+    @Test
+    void viewAllItemsFromBookingTimelinesTest() {
+        User owner = createUser(1L, "User", "user@yandex.ru");
+        Item item = createItem(1L, "Item1", "Description1", true, owner, new ItemRequest());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        BookingView last = bookingView(now.minusDays(2), now.minusDays(1));
+        BookingView current = bookingView(now.minusHours(1), now.plusHours(1));
+        when(last.getId()).thenReturn(7L);
+        when(current.getId()).thenReturn(8L);
+        ItemBookingTimeline timeline = new ItemBookingTimeline(List.of(last, current));
+
+        when(itemRepository.findByOwnerIdOrderByIdAsc(eq(1L), any(OffsetPageRequest.class))).thenReturn(List.of(item));
+        when(timelines.isEnabled()).thenReturn(true);
+        when(timelines.getAll(List.of(1L))).thenReturn(Map.of(1L, timeline));
+
+        List<ItemDtoOwner> result = itemService.viewAllItems(owner.getId(), FROM, SIZE);
+
+        assertEquals(7L, result.get(0).getLastBooking().getId());
+        assertNull(result.get(0).getNextBooking());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void viewAllItemsWithoutItemsSkipsBookingsTest() {
+        when(itemRepository.findByOwnerIdOrderByIdAsc(eq(1L), any(OffsetPageRequest.class)))
+                .thenReturn(Collections.emptyList());
+
+        List<ItemDtoOwner> result = itemService.viewAllItems(1L, FROM, SIZE);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void searchItemsTest() {
         String searchText = "Text";
@@ -265,31 +357,121 @@ public class ItemServiceITest {
         items.add(item1);
         items.add(item2);
 
-        when(itemRepository.search(searchText, PageRequest.of(FROM / SIZE, SIZE))).thenReturn(items);
+        List<ItemSearchHit> hits = List.of(new ItemSearchHit(2L, 0.9), new ItemSearchHit(1L, 0.5));
+        when(searchEngine.search(searchText, OffsetPageRequest.of(FROM, SIZE))).thenReturn(hits);
+        List<ItemView> views = items.stream()
+                .map(this::itemView)
+                .collect(Collectors.toList());
+        when(itemRepository.findItemViewsByIdIn(List.of(2L, 1L))).thenReturn(views);
 
         List<ItemDto> result = itemService.searchItems(searchText, FROM, SIZE);
 
-        verify(itemRepository).search(searchText, PageRequest.of(FROM / SIZE, SIZE));
+        verify(searchEngine).search(searchText, OffsetPageRequest.of(FROM, SIZE));
+        verify(itemRepository).findItemViewsByIdIn(List.of(2L, 1L));
 
         assertEquals(2, result.size());
-        assertEquals(items.get(0).getId(), result.get(0).getId());
-        assertEquals(items.get(0).getName(), result.get(0).getName());
-        assertEquals(items.get(0).getDescription(), result.get(0).getDescription());
+        assertEquals(item2.getId(), result.get(0).getId());
+        assertEquals(item2.getName(), result.get(0).getName());
+        assertEquals(item2.getDescription(), result.get(0).getDescription());
+
+        assertEquals(item1.getId(), result.get(1).getId());
+        assertEquals(item1.getName(), result.get(1).getName());
+        assertEquals(item1.getDescription(), result.get(1).getDescription());
+        assertNull(result.get(1).getOwner());
+    }
 
-        assertEquals(items.get(1).getId(), result.get(1).getId());
-        assertEquals(items.get(1).getName(), result.get(1).getName());
-        assertEquals(items.get(1).getDescription(), result.get(1).getDescription());
+    @Test
+    void searchItemPageAfterCursorTest() {
+        Item item = createItem(3L, "Item3", "Description3", true, new User(), new ItemRequest());
+        Cursor after = Cursor.of(0.5, 1L);
+        when(searchEngine.searchAfter("Text", after, 1)).thenReturn(List.of(new ItemSearchHit(3L, 0.25)));
+        ItemView view = itemView(item);
+        when(itemRepository.findItemViewsByIdIn(List.of(3L))).thenReturn(List.of(view));
+
+        CursorPage<ItemDto> page = itemService.searchItemPage("Text", FROM, 1, after.encode());
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(item.getId(), page.getItems().get(0).getId());
+        assertEquals(Cursor.of(0.25, 3L), Cursor.decode(page.getNext()));
     }
 
     @Test
     void searchItemsBlankTextTest() {
         List<ItemDto> result = itemService.searchItems("", FROM, SIZE);
 
-        verifyNoInteractions(itemRepository);
+        verifyNoInteractions(itemRepository, searchEngine);
 
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getItemAvailabilityMergesBookingsTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<BookingView> bookings = List.of(
+                bookingView(from.minusDays(1), from.plusDays(2)),
+                bookingView(from.plusDays(1), from.plusDays(3)),
+                bookingView(from.plusHours(30), from.plusHours(40)),
+                bookingView(from.plusDays(3), from.plusDays(4)),
+                bookingView(from.plusDays(6), from.plusDays(7)),
+                bookingView(from.plusDays(9), from.plusDays(12)));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingViewsInWindow(eq(1L), eq(EnumSet.of(APPROVED)), eq(from), eq(to)))
+                .thenReturn(bookings);
+
+        ItemAvailabilityDto result = itemService.getItemAvailability(1L, from, to, false);
+
+        assertEquals(List.of(slot(from, from.plusDays(4)), slot(from.plusDays(6), from.plusDays(7)),
+                slot(from.plusDays(9), to)), result.getBusy());
+        assertEquals(List.of(slot(from.plusDays(4), from.plusDays(6)), slot(from.plusDays(7), from.plusDays(9))),
+                result.getFree());
+    }
+
+    @Test
+    void getItemAvailabilityWithoutBookingsTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingViewsInWindow(eq(1L), eq(EnumSet.of(APPROVED, WAITING)), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        ItemAvailabilityDto result = itemService.getItemAvailability(1L, from, from.plusDays(1), true);
+
+        assertTrue(result.getBusy().isEmpty());
+        assertEquals(List.of(slot(from, from.plusDays(1))), result.getFree());
+    }
+
+    @Test
+    void getItemAvailabilityWrongPeriodTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(InvalidException.class, () -> itemService.getItemAvailability(1L, from, from, false));
+        when(itemRepository.existsById(1L)).thenReturn(false);
+        assertThrows(DataNotFoundException.class,
+                () -> itemService.getItemAvailability(1L, from, from.plusDays(1), false));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private TimeSlotDto slot(LocalDateTime start, LocalDateTime end) {
+        return TimeSlotDto.builder().start(start).end(end).build();
+    }
+
+    private BookingView bookingView(LocalDateTime start, LocalDateTime end) {
+        BookingView view = mock(BookingView.class);
+        when(view.getStart()).thenReturn(start);
+        when(view.getEnd()).thenReturn(end);
+        return view;
+    }
+
+    private ItemView itemView(Item item) {
+        ItemView view = mock(ItemView.class);
+        when(view.getId()).thenReturn(item.getId());
+        when(view.getName()).thenReturn(item.getName());
+        when(view.getDescription()).thenReturn(item.getDescription());
+        when(view.getAvailable()).thenReturn(item.getAvailable());
+        return view;
+    }
+
     private Item createItemWithId(ItemDto itemDto, Long itemId) {
         User owner = itemDto.getOwner();
         ItemRequest itemRequest = null;
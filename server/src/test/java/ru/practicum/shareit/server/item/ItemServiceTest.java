@@ -1,5 +1,7 @@
 package ru.practicum.shareit.server.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -7,29 +9,43 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.booking.dto.BookingDtoReturned;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
 import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.repo.BookingRepository;
 import ru.practicum.shareit.server.booking.service.BookingService;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
 import ru.practicum.shareit.server.exception.InvalidException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemDtoOwner;
+import ru.practicum.shareit.server.item.dto.TimeSlotDto;
 import ru.practicum.shareit.server.item.mapper.CommentMapper;
 import ru.practicum.shareit.server.item.mapper.ItemMapper;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.service.ItemServiceImpl;
+import ru.practicum.shareit.server.pagination.CursorPage;
 import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.repo.UserRepository;
 import ru.practicum.shareit.server.user.service.UserServiceImpl;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static java.lang.Thread.sleep;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.server.booking.model.Status.APPROVED;
+import static ru.practicum.shareit.server.booking.model.Status.REJECTED;
+import static ru.practicum.shareit.server.booking.model.Status.WAITING;
 
 @SpringBootTest
 @Transactional
@@ -43,6 +59,18 @@ public class ItemServiceTest {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private final User user = new User(null, "user", "user@yandex.ru");
     private final Item item = new Item(null, "item", "description", true, user, null);
 
@@ -59,7 +87,7 @@ public class ItemServiceTest {
 
     @Test
     void createItemWrongUserTest() {
-        assertThrows(DataNotFoundException.class,
+        assertThrows(EntityNotFoundException.class,
                 () -> itemService.createItem(ItemMapper.toItemDto(item), 5L));
     }
 
@@ -88,7 +116,7 @@ public class ItemServiceTest {
         item.setName("new item name");
 
         assertThrows(DataNotFoundException.class,
-                () -> itemService.updateItem(item.getId(), ItemMapper.toItemDto(item),  100L));
+                () -> itemService.updateItem(item.getId(), ItemMapper.toItemDto(item), user.getId() + 1));
     }
 
     @Test
@@ -147,7 +175,7 @@ public class ItemServiceTest {
         author.setId(authorDto.getId());
 
         Booking booking = new Booking(null, LocalDateTime.now().plusSeconds(1), LocalDateTime.now().plusSeconds(2),
-                item, null, null);
+                item, null, null, null);
         BookingDtoReturned bookingDtoReturned =
                 bookingService.createBooking(BookingMapper.toBookingDtoReceived(booking), author.getId());
         booking.setId(bookingDtoReturned.getId());
@@ -163,6 +191,77 @@ public class ItemServiceTest {
         assertEquals(comment.getAuthor().getName(), commentDto.getAuthorName());
     }
 
+    @Test
+    void itemCommentsLoadAuthorsInOneQueryTest() {
+        user.setId(userService.createUser(UserMapper.toUserDto(user)).getId());
+        Item saved = entityManager.find(Item.class, itemService.createItem(ItemMapper.toItemDto(item), user.getId())
+                .getId());
+        for (int i = 0; i < 3; i++) {
+            User author = entityManager.find(User.class, userService.createUser(UserDto.builder()
+                    .name("author" + i)
+                    .email("author" + i + "@yandex.ru")
+                    .build()).getId());
+            entityManager.persist(Comment.builder().text("Отличная вещь").item(saved).author(author).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            ItemDtoOwner itemDto = itemService.getItemById(saved.getId(), user.getId() + 100);
+
+            assertEquals(List.of("author0", "author1", "author2"), itemDto.getComments().stream()
+                    .map(CommentDto::getAuthorName)
+                    .sorted()
+                    .collect(Collectors.toList()));
+            assertEquals(3, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void itemViewShowsNewestCommentsAndCountTest() {
+        user.setId(userService.createUser(UserMapper.toUserDto(user)).getId());
+        item.setId(itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId());
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> commentIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            User author = userRepository.findById(userService.createUser(UserDto.builder()
+                    .name("author" + i)
+                    .email("author" + i + "@yandex.ru")
+                    .build()).getId()).orElseThrow();
+            LocalDateTime start = now.minusDays(i + 2);
+            bookingRepository.save(new Booking(null, start, start.plusHours(1), item, author, APPROVED, null));
+            commentIds.add(itemService.commentItem(item.getId(), CommentDto.builder().text("Комментарий " + i).build(),
+                    author.getId()).getId());
+        }
+        Collections.reverse(commentIds);
+
+        ItemDtoOwner itemDto = itemService.getItemById(item.getId(), user.getId());
+
+        assertEquals(12L, itemDto.getCommentCount());
+        assertEquals(commentIds.subList(0, 10), itemDto.getComments().stream()
+                .map(CommentDto::getId)
+                .collect(Collectors.toList()));
+
+        CursorPage<CommentDto> first = itemService.getCommentPage(item.getId(), null, 5);
+        CursorPage<CommentDto> second = itemService.getCommentPage(item.getId(), first.getNext(), 5);
+        CursorPage<CommentDto> third = itemService.getCommentPage(item.getId(), second.getNext(), 5);
+
+        assertEquals(commentIds.subList(0, 5), ids(first));
+        assertEquals(commentIds.subList(5, 10), ids(second));
+        assertEquals(commentIds.subList(10, 12), ids(third));
+        assertNull(third.getNext());
+    }
+
+    @Test
+    void commentsOfUnknownItemTest() {
+        assertThrows(DataNotFoundException.class, () -> itemService.getCommentPage(100L, null, 5));
+    }
+
     @Test
     void emptyCommentItemTest() throws InterruptedException {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -176,7 +275,7 @@ public class ItemServiceTest {
         author.setId(authorDto.getId());
 
         Booking booking = new Booking(null, LocalDateTime.now().plusSeconds(1), LocalDateTime.now().plusSeconds(2),
-                item, null, null);
+                item, null, null, null);
         BookingDtoReturned bookingDtoReturned =
                 bookingService.createBooking(BookingMapper.toBookingDtoReceived(booking), author.getId());
         booking.setId(bookingDtoReturned.getId());
@@ -216,7 +315,7 @@ public class ItemServiceTest {
         author.setId(5L);
 
         Comment comment = new Comment(null, "comment", item, author);
-        assertThrows(DataNotFoundException.class,
+        assertThrows(InvalidException.class,
                 () -> itemService.commentItem(item.getId(), CommentMapper.toCommentDto(comment), author.getId()));
     }
 
@@ -233,7 +332,7 @@ public class ItemServiceTest {
         author.setId(authorDto.getId());
 
         Booking booking = new Booking(null, LocalDateTime.now().plusSeconds(1), LocalDateTime.now().plusSeconds(2),
-                item, null, null);
+                item, null, null, null);
         BookingDtoReturned bookingDtoReturned =
                 bookingService.createBooking(BookingMapper.toBookingDtoReceived(booking), author.getId());
         booking.setId(bookingDtoReturned.getId());
@@ -287,6 +386,62 @@ public class ItemServiceTest {
         assertEquals(itemsDtoOwner.get(2).getName(), item3.getName());
     }
 
+    @Test
+    void viewAllItemsWithLastAndNextBookingsTest() {
+        UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
+        user.setId(userDto.getId());
+        User booker = new User(null, "booker", "booker@yandex.ru");
+        booker.setId(userService.createUser(UserMapper.toUserDto(booker)).getId());
+        item.setId(itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId());
+        Item item2 = new Item(null, "item2", "description2", true, user, null);
+        item2.setId(itemService.createItem(ItemMapper.toItemDto(item2), user.getId()).getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker, APPROVED, null));
+        Booking last = bookingRepository.save(
+                new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, APPROVED, null));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, WAITING, null));
+        Booking next = bookingRepository.save(
+                new Booking(null, now.plusDays(3), now.plusDays(4), item, booker, APPROVED, null));
+        bookingRepository.save(new Booking(null, now.plusDays(5), now.plusDays(6), item, booker, APPROVED, null));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item2, booker, APPROVED, null));
+
+        List<ItemDtoOwner> itemsDtoOwner = itemService.viewAllItems(user.getId(), 0, 1);
+
+        assertEquals(1, itemsDtoOwner.size());
+        assertEquals(last.getId(), itemsDtoOwner.get(0).getLastBooking().getId());
+        assertEquals(booker.getId(), itemsDtoOwner.get(0).getLastBooking().getBookerId());
+        assertEquals(next.getId(), itemsDtoOwner.get(0).getNextBooking().getId());
+        assertEquals(APPROVED, itemsDtoOwner.get(0).getNextBooking().getStatus());
+    }
+
+    @Test
+    void getItemAvailabilityTest() {
+        UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
+        user.setId(userDto.getId());
+        User booker = new User(null, "booker", "booker@yandex.ru");
+        booker.setId(userService.createUser(UserMapper.toUserDto(booker)).getId());
+        item.setId(itemService.createItem(ItemMapper.toItemDto(item), user.getId()).getId());
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+        bookingRepository.save(new Booking(null, from.minusHours(12), from.plusDays(2), item, booker, APPROVED, null));
+        bookingRepository.save(new Booking(null, from.plusDays(2), from.plusDays(3), item, booker, APPROVED, null));
+        bookingRepository.save(new Booking(null, from.plusDays(4), from.plusDays(5), item, booker, WAITING, null));
+        bookingRepository.save(new Booking(null, from.plusDays(6), from.plusDays(7), item, booker, REJECTED, null));
+        bookingRepository.save(new Booking(null, from.plusDays(8), from.plusDays(12), item, booker, APPROVED, null));
+
+        ItemAvailabilityDto approvedOnly = itemService.getItemAvailability(item.getId(), from, to, false);
+        ItemAvailabilityDto withWaiting = itemService.getItemAvailability(item.getId(), from, to, true);
+
+        assertEquals(List.of(slot(from, from.plusDays(3)), slot(from.plusDays(8), to)), approvedOnly.getBusy());
+        assertEquals(List.of(slot(from.plusDays(3), from.plusDays(8))), approvedOnly.getFree());
+        assertEquals(List.of(slot(from, from.plusDays(3)), slot(from.plusDays(4), from.plusDays(5)),
+                slot(from.plusDays(8), to)), withWaiting.getBusy());
+        assertEquals(List.of(slot(from.plusDays(3), from.plusDays(4)), slot(from.plusDays(5), from.plusDays(8))),
+                withWaiting.getFree());
+    }
+
     @Test
     void searchItemsTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -311,4 +466,12 @@ public class ItemServiceTest {
     void searchItemsEmptyTextTest() {
         assertEquals(Collections.emptyList(), itemService.searchItems("", 0, 10));
     }
+
+    private TimeSlotDto slot(LocalDateTime start, LocalDateTime end) {
+        return TimeSlotDto.builder().start(start).end(end).build();
+    }
+
+    private List<Long> ids(CursorPage<CommentDto> page) {
+        return page.getItems().stream().map(CommentDto::getId).collect(Collectors.toList());
+    }
 }
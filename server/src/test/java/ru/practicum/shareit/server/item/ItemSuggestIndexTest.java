@@ -0,0 +1,137 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.server.item.search.ItemSuggestIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemSuggestIndexTest {
+    private final ItemSuggestIndex index = new ItemSuggestIndex(1024 * 1024);
+
+    @Test
+    void suggestByWordPrefix() {
+        index.put(1L, "Дрель Bosch", true);
+        index.put(2L, "Дрезина", true);
+        index.put(3L, "Аккумуляторная дрель", true);
+        index.put(4L, "Пила", true);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(index.suggest("дре", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("bo", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("дрель акк", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("дре", 1)));
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void suggestReturnsNames() {
+        index.put(1L, "Дрель Bosch", true);
+
+        assertEquals(List.of(ItemSuggestionDto.builder().id(1L).name("Дрель Bosch").build()),
+                index.suggest("дрел", 10));
+    }
+
+    @Test
+    void suggestToleratesTypos() {
+        index.put(1L, "Перфоратор", true);
+        index.put(2L, "Велосипед горный", true);
+
+        assertEquals(List.of(1L), ids(index.suggest("парфо", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("перфаратор", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("велсипед", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("велосипед гарн", 10)));
+        assertTrue(index.suggest("молоток", 10).isEmpty());
+    }
+
+    @Test
+    void exactPrefixComesBeforeFuzzyMatch() {
+        index.put(1L, "Палатка", true);
+        index.put(2L, "Палитра", true);
+
+        assertEquals(List.of(1L, 2L), ids(index.suggest("палат", 10)));
+    }
+
+    @Test
+    void putReplacesNameAndAvailability() {
+        index.put(1L, "Дрель", true);
+        index.put(1L, "Перфоратор", true);
+
+        assertTrue(index.suggest("дрель", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.suggest("перф", 10)));
+
+        index.put(1L, "Перфоратор", false);
+        assertTrue(index.suggest("перф", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void memoryLimitStopsIndexing() {
+        ItemSuggestIndex small = new ItemSuggestIndex(1024);
+        long id = 0;
+        while (small.put(++id, "Вещь номер " + id, true)) {
+            assertTrue(small.usedBytes() <= 1024);
+        }
+
+        assertFalse(small.suggest("вещь", 100).isEmpty());
+        assertTrue(small.suggest(String.valueOf(id), 10).isEmpty());
+        assertEquals(id - 1, small.size());
+    }
+
+    @Test
+    void removeFreesVocabulary() {
+        index.put(1L, "Дрель Bosch", true);
+        long baseline = index.usedBytes();
+        index.put(2L, "Дрезина", true);
+        index.put(3L, "Дрель ударная", true);
+
+        index.remove(2L);
+        index.remove(3L);
+
+        assertEquals(baseline, index.usedBytes());
+        assertEquals(List.of(1L), ids(index.suggest("дре", 10)));
+        assertTrue(index.suggest("ударн", 10).isEmpty());
+        assertTrue(index.suggest("дрезна", 10).isEmpty());
+
+        index.put(4L, "Дрезина", true);
+        assertEquals(List.of(4L, 1L), ids(index.suggest("дре", 10)));
+
+        index.remove(1L);
+        index.remove(4L);
+        assertEquals(0, index.usedBytes());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void renameOverLimitKeepsPreviousEntry() {
+        ItemSuggestIndex small = new ItemSuggestIndex(1024);
+        assertTrue(small.put(1L, "Дрель", true));
+        long used = small.usedBytes();
+
+        assertFalse(small.put(1L, "Дрель " + "перфоратор".repeat(20), true));
+
+        assertEquals(used, small.usedBytes());
+        assertEquals(List.of(1L), ids(small.suggest("дрел", 10)));
+    }
+
+    @Test
+    void renameReleasesVocabularyBeforeLimitCheck() {
+        ItemSuggestIndex small = new ItemSuggestIndex(1024);
+        long id = 0;
+        while (small.put(++id, "Вещь " + id, true)) {
+            assertTrue(small.usedBytes() <= 1024);
+        }
+
+        assertTrue(small.put(1L, "Вещь " + id, true));
+        assertEquals(List.of(1L), ids(small.suggest(String.valueOf(id), 10)));
+        assertTrue(small.suggest("1", 10).stream().noneMatch(suggestion -> suggestion.getId() == 1L));
+    }
+
+    private List<Long> ids(List<ItemSuggestionDto> suggestions) {
+        return suggestions.stream().map(ItemSuggestionDto::getId).collect(Collectors.toList());
+    }
+}
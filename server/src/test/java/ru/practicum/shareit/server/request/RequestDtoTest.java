@@ -13,6 +13,7 @@ import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
@@ -24,7 +25,7 @@ public class RequestDtoTest {
 
     private final User user = new User(5L, "user", "user@yandex.ru");
     private ItemRequest itemRequest;
-    private final LocalDateTime ldt = LocalDateTime.now();
+    private final LocalDateTime ldt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
     private static final String TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSSSS";
 
@@ -22,26 +22,26 @@ public class RequestRepositoryTest {
     private UserRepository userRepository;
 
     @Test
-    public void testFindItemRequestsByRequestorIdNotOrderByCreatedAsc() {
-        User requestor = new User(1L, "requestor", "requestor@yandex.ru");
+    public void testFindItemRequestsByRequestorIdNotOrderByCreatedAscIdAsc() {
+        User requestor = new User(null, "requestor", "requestor@yandex.ru");
         requestor = userRepository.save(requestor);
 
-        User user = new User(2L, "user", "user@yandex.ru");
+        User user = new User(null, "user", "user@yandex.ru");
         user = userRepository.save(user);
 
-        ItemRequest request1 = new ItemRequest(1L, "first request", requestor,
+        ItemRequest request1 = new ItemRequest(null, "first request", requestor,
                 LocalDateTime.now().minusDays(1));
         request1 = requestRepository.save(request1);
 
-        ItemRequest request2 = new ItemRequest(2L, "second request", user,
+        ItemRequest request2 = new ItemRequest(null, "second request", user,
                 LocalDateTime.now().minusHours(3));
         request2 = requestRepository.save(request2);
 
-        ItemRequest request3 = new ItemRequest(3L, "third request", requestor, LocalDateTime.now());
+        ItemRequest request3 = new ItemRequest(null, "third request", requestor, LocalDateTime.now());
         request3 = requestRepository.save(request3);
 
         List<ItemRequest> foundRequests = requestRepository
-                .findItemRequestsByRequestorIdNotOrderByCreatedAsc(user.getId(), PageRequest.of(0, 10));
+                .findItemRequestsByRequestorIdNotOrderByCreatedAscIdAsc(user.getId(), PageRequest.of(0, 10));
 
         assertEquals(2, foundRequests.size());
 
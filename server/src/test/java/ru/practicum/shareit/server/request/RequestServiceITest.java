@@ -23,9 +23,11 @@ import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -58,7 +60,6 @@ public class RequestServiceITest {
 
         ItemRequestDto result = requestService.createRequest(itemRequestDto, requestor.getId());
 
-        verify(userRepository).findById(requestor.getId());
         verify(requestRepository).save(any(ItemRequest.class));
 
         assertNotNull(result);
@@ -69,7 +70,6 @@ public class RequestServiceITest {
     @Test
     void getUserRequestsTest() {
         User requestor = createUser(1L, "User", "user@yandex.ru");
-        when(userRepository.findById(requestor.getId())).thenReturn(Optional.of(requestor));
 
         ItemRequest itemRequest1 = createItemRequest(1L, "Request1", requestor, LocalDateTime.now());
         ItemRequest itemRequest2 = createItemRequest(2L, "Request2", requestor, LocalDateTime.now());
@@ -81,23 +81,32 @@ public class RequestServiceITest {
 
         when(requestRepository.findAllByRequestorIdOrderByCreatedAsc(requestor.getId())).thenReturn(itemRequests);
 
-        List<Item> items = Collections.emptyList();
-        when(itemRepository.findAll()).thenReturn(items);
+        Item item = Item.builder()
+                .id(5L)
+                .name("Item")
+                .description("Description")
+                .available(true)
+                .owner(createUser(2L, "Owner", "owner@yandex.ru"))
+                .request(itemRequest1)
+                .build();
+        when(itemRepository.findItemsByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(item));
 
         List<ItemRequestDto> result = requestService.getUserRequests(requestor.getId());
 
-        verify(userRepository).findById(requestor.getId());
         verify(requestRepository).findAllByRequestorIdOrderByCreatedAsc(requestor.getId());
-        verify(itemRepository).findAll();
+        verify(itemRepository).findItemsByRequestIdIn(List.of(1L, 2L));
+        verifyNoMoreInteractions(itemRepository);
 
         assertNotNull(result);
         assertEquals(itemRequestDtos.size(), result.size());
+        assertEquals(1, result.get(0).getItems().size());
+        assertEquals(item.getId(), result.get(0).getItems().get(0).getId());
+        assertTrue(result.get(1).getItems().isEmpty());
     }
 
     @Test
     void getAllRequestsTest() {
         User requestor = createUser(1L, "User", "user@yandex.ru");
-        when(userRepository.findById(requestor.getId())).thenReturn(Optional.of(requestor));
 
         ItemRequest itemRequest1 = createItemRequest(1L, "Request1", requestor, LocalDateTime.now());
         ItemRequest itemRequest2 = createItemRequest(2L, "Request2", requestor, LocalDateTime.now());
@@ -107,18 +116,18 @@ public class RequestServiceITest {
                 .map(RequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
 
-        when(requestRepository.findItemRequestsByRequestorIdNotOrderByCreatedAsc(eq(requestor.getId()),
+        when(requestRepository.findItemRequestsByRequestorIdNotOrderByCreatedAscIdAsc(eq(requestor.getId()),
                 any(Pageable.class))).thenReturn(itemRequests);
 
         List<Item> items = Collections.emptyList();
-        when(itemRepository.findAll()).thenReturn(items);
+        when(itemRepository.findItemsByRequestIdIn(List.of(1L, 2L))).thenReturn(items);
 
         List<ItemRequestDto> result = requestService.getAllRequests(requestor.getId(), FROM, SIZE);
 
-        verify(userRepository).findById(requestor.getId());
         verify(requestRepository)
-                .findItemRequestsByRequestorIdNotOrderByCreatedAsc(eq(requestor.getId()), any(Pageable.class));
-        verify(itemRepository).findAll();
+                .findItemRequestsByRequestorIdNotOrderByCreatedAscIdAsc(eq(requestor.getId()), any(Pageable.class));
+        verify(itemRepository).findItemsByRequestIdIn(List.of(1L, 2L));
+        verifyNoMoreInteractions(itemRepository);
 
         assertNotNull(result);
         assertEquals(itemRequestDtos.size(), result.size());
@@ -127,7 +136,6 @@ public class RequestServiceITest {
     @Test
     void getRequestByIdTest() {
         User requestor = createUser(1L, "User", "user@yandex.ru");
-        when(userRepository.findById(requestor.getId())).thenReturn(Optional.of(requestor));
 
         ItemRequest itemRequest = createItemRequest(1L, "Request", requestor, LocalDateTime.now());
         ItemRequestDto itemRequestDto = RequestMapper.toItemRequestDto(itemRequest);
@@ -143,7 +151,6 @@ public class RequestServiceITest {
         ItemRequestDto result = requestService.getRequestById(requestor.getId(), itemRequest.getId());
         result.setItems(itemsDto);
 
-        verify(userRepository).findById(requestor.getId());
         verify(requestRepository).findById(itemRequest.getId());
         verify(itemRepository).findItemsByRequestId(itemRequest.getId());
 
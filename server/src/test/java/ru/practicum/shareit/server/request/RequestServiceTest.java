@@ -64,12 +64,6 @@ public class RequestServiceTest {
                 () -> requestService.createRequest(RequestMapper.toItemRequestDto(request), user.getId()));
     }
 
-    @Test
-    void getWrongUserRequestsTest() {
-        assertThrows(DataNotFoundException.class,
-                () -> requestService.getUserRequests(5L));
-    }
-
     @Test
     void getUserRequestsTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -93,12 +87,6 @@ public class RequestServiceTest {
         assertEquals(requests.get(2).getDescription(), request2.getDescription());
     }
 
-    @Test
-    void getAllRequestsWrongUserTest() {
-        assertThrows(DataNotFoundException.class,
-                () -> requestService.getAllRequests(5L, 0, 10));
-    }
-
     @Test
     void getAllRequestsTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -119,19 +107,6 @@ public class RequestServiceTest {
         assertEquals(requests.get(1).getDescription(), request2.getDescription());
     }
 
-    @Test
-    void getRequestByIdWrongUserTest() {
-        UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
-        user.setId(userDto.getId());
-
-        ItemRequestDto requestDto =
-                requestService.createRequest(RequestMapper.toItemRequestDto(request), user.getId());
-        request.setId(requestDto.getId());
-
-        assertThrows(DataNotFoundException.class,
-                () -> requestService.getRequestById(5L, request.getId()));
-    }
-
     @Test
     void getRequestByWrongIdTest() {
         UserDto userDto = userService.createUser(UserMapper.toUserDto(user));
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.server.support;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+import ru.practicum.shareit.server.sql.SqlScope;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlScope.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlScope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlScope.class);
+        scope.close();
+        int budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class).value();
+        if (context.getExecutionException().isEmpty() && scope.getStatements() > budget) {
+            throw new AssertionFailedError("Превышен бюджет SQL-запросов: выполнено " + scope.getStatements()
+                    + ", допустимо " + budget, budget, scope.getStatements());
+        }
+    }
+}
@@ -6,11 +6,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.server.booking.repo.BookingRepository;
 import ru.practicum.shareit.server.exception.DataNotFoundException;
+import ru.practicum.shareit.server.item.repo.ItemRepository;
+import ru.practicum.shareit.server.item.service.ItemBookingCaches;
 import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.model.User;
 import ru.practicum.shareit.server.user.repo.UserRepository;
+import ru.practicum.shareit.server.user.service.KnownUsers;
 import ru.practicum.shareit.server.user.service.UserServiceImpl;
 
 import java.util.ArrayList;
@@ -25,6 +29,18 @@ public class UserServiceITest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private KnownUsers knownUsers;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemBookingCaches bookingCaches;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -81,7 +97,7 @@ public class UserServiceITest {
     void createUserTest() {
         User user = createUser(1L, "User", "user@yandex.ru");
         UserDto userDto = UserMapper.toUserDto(user);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserDto result = userService.createUser(userDto);
 
@@ -89,7 +105,7 @@ public class UserServiceITest {
         assertEquals(user.getName(), result.getName());
         assertEquals(user.getEmail(), result.getEmail());
 
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -130,10 +146,14 @@ public class UserServiceITest {
     void deleteUserTest() {
         User user = createUser(1L, "User", "user@yandex.ru");
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findIdsByOwnerId(user.getId())).thenReturn(List.of(10L));
+        when(bookingRepository.findItemIdsByBookerId(user.getId())).thenReturn(List.of(10L, 20L));
 
         userService.deleteUser(user.getId());
 
         verify(userRepository).deleteById(user.getId());
+        verify(bookingCaches).itemsDeleted(List.of(10L));
+        verify(bookingCaches).bookingsDeleted(List.of(20L));
     }
 
     private User createUser(Long id, String name, String email) {